@@ -0,0 +1,81 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.dto.Task.TasksDashboard;
+import com.example.demo.domain.enums.TaskSort;
+import com.example.demo.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+// wiecej watkow niz polaczen w puli: przepustowosc i rozklad czasu (p99 w wyniku SampleTime) z limiterem przed pula i bez niego
+// rozmiar puli i liczba watkow z linii polecen, np. -p poolSize=4 -t 256
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Threads(64)
+@Fork(1)
+public class ConcurrentLoadBenchmark {
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+
+    @State(Scope.Benchmark)
+    public static class PooledDatabase {
+        @Param({"true", "false"})
+        public boolean limiter;
+
+        @Param({"10"})
+        public int poolSize;
+
+        @Param({"10000"})
+        public int taskCount;
+
+        public ConfigurableApplicationContext context;
+
+        public TaskService taskService;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = SeededDatabase.start("pooled_" + limiter + "_" + poolSize,
+                    "--app.datasource.concurrency.enabled=" + limiter,
+                    "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                    "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                    "--spring.datasource.hikari.connection-timeout=30000");
+            SeededDatabase.logIn(SeededDatabase.seedUser(context, taskCount));
+            taskService = context.getBean(TaskService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Page<TaskResponseDTO> tasksPage(PooledDatabase db) {
+        return db.taskService.getTasks(null, null, null, null, TaskSort.CREATED_AT, Sort.Direction.DESC, PAGE);
+    }
+
+    @Benchmark
+    public TasksDashboard tasksDashboard(PooledDatabase db) {
+        return db.taskService.getTasksDashboard();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.dto.Task.TasksDashboard;
+import com.example.demo.domain.enums.Status;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// agregacje dashboardu: jedno GROUP BY kontra osobne COUNT na kazdy status, a tasksDashboard czyta gotowe liczniki
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardBenchmark {
+
+    @Benchmark
+    public Map<Status, Long> countGroupedByStatus(SeededDatabase db) {
+        return db.dashboardJdbcDao.countGroupedByStatus(db.userId);
+    }
+
+    @Benchmark
+    public void countSeparately(SeededDatabase db, Blackhole blackhole) {
+        blackhole.consume(db.dashboardJdbcDao.countAll(db.userId));
+        for (Status status : Status.values()) {
+            blackhole.consume(db.dashboardJdbcDao.countByStatus(db.userId, status));
+        }
+    }
+
+    @Benchmark
+    public TasksDashboard tasksDashboard(SeededDatabase db) {
+        return db.taskService.getTasksDashboard();
+    }
+}
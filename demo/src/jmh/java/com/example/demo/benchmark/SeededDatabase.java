@@ -0,0 +1,132 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.mapper.TaskMapper;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.dao.DashboardJdbcDao;
+import com.example.demo.security.model.CustomUserDetails;
+import com.example.demo.service.TaskService;
+import com.example.demo.service.TaskStatusCountReconciler;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// aplikacja bez serwera HTTP na wlasnej bazie H2 z jednym uzytkownikiem i taskCount zadaniami
+// rozmiar bazy zmieniany z linii polecen: -p taskCount=100000
+@State(Scope.Benchmark)
+public class SeededDatabase {
+    private static final int INSERT_BATCH = 1000;
+
+    @Param({"1000", "10000"})
+    public int taskCount;
+
+    public ConfigurableApplicationContext context;
+
+    public UUID userId;
+
+    // beany pobrane raz, zeby getBean nie wchodzil do pomiaru
+    public TaskRepository taskRepository;
+    public TaskMapper taskMapper;
+    public TaskService taskService;
+    public DashboardJdbcDao dashboardJdbcDao;
+    public TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = start("bench_" + taskCount);
+        userId = seedUser(context, taskCount);
+
+        taskRepository = context.getBean(TaskRepository.class);
+        taskMapper = context.getBean(TaskMapper.class);
+        taskService = context.getBean(TaskService.class);
+        dashboardJdbcDao = context.getBean(DashboardJdbcDao.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        logIn(userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // argumenty linii polecen, bo wlasciwosci domyslne przegralyby z application.properties
+    static ConfigurableApplicationContext start(String database, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--spring.devtools.restart.enabled=false",
+                // devtools zamyka baze H2 drugi raz przy zamykaniu kontekstu i zasmieca wynik ostrzezeniem
+                "--spring.autoconfigure.exclude=org.springframework.boot.devtools.autoconfigure.DevToolsDataSourceAutoConfiguration",
+                "--logging.level.root=WARN"
+        ));
+        args.addAll(List.of(extraArgs));
+
+        return new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+
+    // watki JMH to nie watek setupu, wiec kontekst bezpieczenstwa musi byc wspolny
+    static void logIn(UUID userId) {
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new CustomUserDetails(userId, "bench", "x"), null, List.of()));
+    }
+
+    // zadania rozlozone po wszystkich statusach i kategoriach, co piate bez kategorii
+    static UUID seedUser(ConfigurableApplicationContext context, int taskCount) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, password) VALUES (?, ?, ?)", userId, "bench_" + userId, "x");
+
+        List<UUID> categories = jdbcTemplate.queryForList("SELECT id FROM category", UUID.class);
+        Status[] statuses = Status.values();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (int i = 0; i < taskCount; i++) {
+            rows.add(new Object[]{
+                    UUID.randomUUID(),
+                    "Task " + i,
+                    "Description of benchmark task number " + i,
+                    statuses[i % statuses.length].name(),
+                    now.plusDays(i % 30 - 15),
+                    i % 5 == 0 ? null : categories.get(i % categories.size()),
+                    userId,
+                    now.minusSeconds(taskCount - i),
+                    now
+            });
+
+            if (rows.size() == INSERT_BATCH || i == taskCount - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO task (id, title, description, status, due_date, category_id, user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        rows
+                );
+                rows.clear();
+            }
+        }
+
+        // wiersze wstawione z pominieciem serwisow, wiec liczniki dashboardu liczymy od razu
+        context.getBean(TaskStatusCountReconciler.class).reconcile();
+
+        return userId;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// eksport wszystkich zadan uzytkownika: tablica bajtow z encji kontra strumien z projekcji
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskExportBenchmark {
+
+    @Benchmark
+    public byte[] exportToBytes(SeededDatabase db) {
+        // stara sciezka czyta leniwe kategorie, bez transakcji (open-in-view) by nie zadzialala
+        return db.transactionTemplate.execute(status -> db.taskService.exportTasksToCsv());
+    }
+
+    @Benchmark
+    public long exportStreaming(SeededDatabase db) {
+        return db.taskService.writeTasksCsv(db.userId, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.entity.Category;
+import com.example.demo.domain.entity.Task;
+import com.example.demo.domain.entity.User;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.mapper.TaskMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// sam mapper na encjach w pamieci, bez bazy - mapper z kontekstu bo wstrzykuje CategoryMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMapperBenchmark {
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+
+    private TaskMapper taskMapper;
+
+    private List<Task> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SeededDatabase.start("bench_mapper");
+        taskMapper = context.getBean(TaskMapper.class);
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+
+        Category category = new Category();
+        category.setId(UUID.randomUUID());
+        category.setName("Work");
+        category.setColor("#1E90FF");
+
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Task task = new Task();
+            task.setId(UUID.randomUUID());
+            task.setTitle("Task " + i);
+            task.setDescription("Description " + i);
+            task.setStatus(Status.values()[i % 3]);
+            task.setDueDate(LocalDateTime.now().plusDays(i));
+            task.setCategory(i % 5 == 0 ? null : category);
+            task.setUser(user);
+            task.setCreatedAt(LocalDateTime.now());
+            task.setUpdatedAt(LocalDateTime.now());
+            page.add(task);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskResponseDTO mapSingle() {
+        return taskMapper.mapToResponseDTO(page.get(1));
+    }
+
+    @Benchmark
+    public void mapPage(Blackhole blackhole) {
+        for (Task task : page) {
+            blackhole.consume(taskMapper.mapToResponseDTO(task));
+        }
+    }
+}
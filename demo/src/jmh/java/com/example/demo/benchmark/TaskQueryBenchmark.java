@@ -0,0 +1,50 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.dto.Task.TaskCursorPage;
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.enums.TaskSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+// strony listy zadan przez TaskService: id z indeksu sortowania + projekcja do DTO (+ COUNT), oraz keyset bez COUNT
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskQueryBenchmark {
+    private static final Pageable PAGE = PageRequest.of(0, 100);
+    private static final Pageable DUE_DATE_PAGE = PageRequest.of(0, 20);
+
+    @Benchmark
+    public Page<TaskResponseDTO> getTasksByCreatedAt(SeededDatabase db) {
+        return db.taskService.getTasks(null, null, null, null, TaskSort.CREATED_AT, Sort.Direction.ASC, PAGE);
+    }
+
+    @Benchmark
+    public Page<TaskResponseDTO> getTasksByStatusAndTitle(SeededDatabase db) {
+        return db.taskService.getTasks("task 1", Status.TODO, null, null, TaskSort.CREATED_AT, Sort.Direction.ASC, PAGE);
+    }
+
+    @Benchmark
+    public Page<TaskResponseDTO> getTasksByDueDateIndex(SeededDatabase db) {
+        return db.taskService.getTasks(null, null, null, null, TaskSort.DUE_DATE, Sort.Direction.DESC, DUE_DATE_PAGE);
+    }
+
+    @Benchmark
+    public TaskCursorPage getTasksAfterCursor(SeededDatabase db) {
+        return db.taskService.getTasksAfter(null, null, null, null, null, 100);
+    }
+}
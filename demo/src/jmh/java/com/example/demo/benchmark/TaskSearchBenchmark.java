@@ -0,0 +1,92 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.service.TaskService;
+import com.example.demo.service.search.TaskSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// wyszukiwanie po indeksie odwroconym przy milionie zadan jednego uzytkownika: sam indeks i pelna odpowiedz z wierszami z bazy
+// zadania z SeededDatabase: tytul "Task i", opis "Description of benchmark task number i"
+// slowo "task" jest w kazdym zadaniu, a liczba i tylko w jednym - zapytanie o oba pokazuje koszt czestego slowa
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class TaskSearchBenchmark {
+    private static final int LIMIT = 20;
+
+    @State(Scope.Benchmark)
+    public static class IndexedDatabase {
+        @Param({"1000000"})
+        public int taskCount;
+
+        public ConfigurableApplicationContext context;
+
+        public UUID userId;
+
+        public TaskSearchIndex taskSearchIndex;
+
+        public TaskService taskService;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = SeededDatabase.start("search_" + taskCount);
+            userId = SeededDatabase.seedUser(context, taskCount);
+            SeededDatabase.logIn(userId);
+
+            taskSearchIndex = context.getBean(TaskSearchIndex.class);
+            taskService = context.getBean(TaskService.class);
+            // indeks zbudowany przy starcie nie widzial zadan wstawionych z pominieciem serwisow
+            taskSearchIndex.rebuild();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public List<UUID> rareWord(IndexedDatabase db) {
+        return db.taskSearchIndex.search(db.userId, "654321", LIMIT);
+    }
+
+    @Benchmark
+    public List<UUID> wordPrefix(IndexedDatabase db) {
+        return db.taskSearchIndex.search(db.userId, "65432", LIMIT);
+    }
+
+    @Benchmark
+    public List<UUID> commonAndRareWord(IndexedDatabase db) {
+        return db.taskSearchIndex.search(db.userId, "task 654321", LIMIT);
+    }
+
+    // najgorszy przypadek: slowo w kazdym zadaniu, ranking obejmuje caly milion
+    @Benchmark
+    public List<UUID> commonWord(IndexedDatabase db) {
+        return db.taskSearchIndex.search(db.userId, "benchmark", LIMIT);
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> searchTasks(IndexedDatabase db) {
+        return db.taskService.searchTasks("benchmark 65432", LIMIT);
+    }
+}
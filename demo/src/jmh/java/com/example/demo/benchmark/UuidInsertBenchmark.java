@@ -0,0 +1,117 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.domain.id.TimeOrderedUuid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// INSERT-y do duzej tabeli z kluczem UUID: losowy v4 kontra rosnacy w czasie v7
+// baza w pliku z malym cache stron, zeby losowe klucze musialy doczytywac strony indeksu jak na prawdziwym serwerze
+// wynik w wierszach na sekunde, np. -p rows=2000000 dla wiekszej tabeli
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class UuidInsertBenchmark {
+    private static final int BATCH = 1000;
+
+    @Param({"v4", "v7"})
+    public String keys;
+
+    @Param({"500000"})
+    public int rows;
+
+    @Param({"4096"})
+    public int cacheSizeKb;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private Supplier<UUID> generator;
+    private final UUID userId = UUID.randomUUID();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        generator = "v7".equals(keys) ? TimeOrderedUuid::next : UUID::randomUUID;
+        directory = Files.createTempDirectory("uuid-insert-" + keys);
+
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("bench") + ";CACHE_SIZE=" + cacheSizeKb, "sa", "");
+        connection.setAutoCommit(false);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE task (
+                        id UUID PRIMARY KEY,
+                        user_id UUID NOT NULL,
+                        title VARCHAR(255) NOT NULL,
+                        created_at TIMESTAMP NOT NULL
+                    )
+                    """);
+        }
+
+        insert = connection.prepareStatement("INSERT INTO task (id, user_id, title, created_at) VALUES (?, ?, ?, ?)");
+        for (int i = 0; i < rows; i += BATCH) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insert() throws SQLException {
+        insertBatch();
+    }
+
+    private void insertBatch() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        for (int i = 0; i < BATCH; i++) {
+            insert.setObject(1, generator.get());
+            insert.setObject(2, userId);
+            insert.setString(3, "Task " + i);
+            insert.setTimestamp(4, now);
+            insert.addBatch();
+        }
+
+        insert.executeBatch();
+        connection.commit();
+    }
+}
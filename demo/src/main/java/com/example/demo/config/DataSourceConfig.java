@@ -0,0 +1,50 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.concurrency.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    // static, zeby post-processor powstal przed DataSource i nie wciagal reszty konfiguracji
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+
+                // domyslnie tyle pozwolen ile polaczen w puli hikari
+                int maxPermits = environment.getProperty("app.datasource.concurrency.max-permits", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                int maxWaiting = environment.getProperty("app.datasource.concurrency.max-waiting", Integer.class, 200);
+                Duration acquireTimeout = environment.getProperty("app.datasource.concurrency.acquire-timeout", Duration.class, Duration.ofSeconds(2));
+
+                return new ConcurrencyLimitingDataSource(dataSource, maxPermits, maxWaiting, acquireTimeout);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitingDataSource limiter) {
+                Gauge.builder("app.jdbc.limiter.waiting", limiter, ConcurrencyLimitingDataSource::getWaiting)
+                        .register(registry);
+                Gauge.builder("app.jdbc.limiter.available", limiter, ConcurrencyLimitingDataSource::getAvailablePermits)
+                        .register(registry);
+            }
+        };
+    }
+}
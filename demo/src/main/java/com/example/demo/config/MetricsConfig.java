@@ -0,0 +1,70 @@
+package com.example.demo.config;
+
+import com.example.demo.security.password.BoundedPasswordEncoder;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.reminder.DeadlineReminderScheduler;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.function.Predicate;
+
+@Configuration
+public class MetricsConfig {
+
+    // obsluguje @Timed na serwisach i dao; gettery licznikow cache czyta prometheus przy kazdym scrape, wiec ich nie mierzymy
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        Predicate<ProceedingJoinPoint> skipCacheStats = joinPoint -> joinPoint.getSignature().getName().startsWith("getCache");
+        return new TimedAspect(registry, skipCacheStats);
+    }
+
+    @Bean
+    public MeterBinder categoryCacheMetrics(CategoryService categoryService) {
+        return registry -> {
+            FunctionCounter.builder("app.category.cache.requests", categoryService, CategoryService::getCacheHits)
+                    .tag("result", "hit")
+                    .register(registry);
+
+            FunctionCounter.builder("app.category.cache.requests", categoryService, CategoryService::getCacheMisses)
+                    .tag("result", "miss")
+                    .register(registry);
+
+            Gauge.builder("app.category.cache.size", categoryService, CategoryService::getCacheSize)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder deadlineReminderMetrics(DeadlineReminderScheduler deadlineReminderScheduler) {
+        return registry -> {
+            Gauge.builder("app.reminders.scheduled", deadlineReminderScheduler, DeadlineReminderScheduler::getScheduledCount)
+                    .register(registry);
+
+            FunctionCounter.builder("app.reminders.fired", deadlineReminderScheduler, DeadlineReminderScheduler::getFiredCount)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordEncoder passwordEncoder) {
+        return registry -> {
+            if (passwordEncoder instanceof BoundedPasswordEncoder encoder) {
+                Gauge.builder("app.security.password.active", encoder, BoundedPasswordEncoder::getActive)
+                        .register(registry);
+                Gauge.builder("app.security.password.queued", encoder, BoundedPasswordEncoder::getQueued)
+                        .register(registry);
+                FunctionCounter.builder("app.security.password.hashes", encoder, BoundedPasswordEncoder::getCompleted)
+                        .register(registry);
+                FunctionCounter.builder("app.security.password.rejected", encoder, BoundedPasswordEncoder::getRejected)
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.config.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// przepuszcza co n-ty wpis jednego loggera, reszta odrzucana zanim logback zbuduje zdarzenie
+// rate = 0 wylacza logger calkiem, inne loggery nie sa dotykane
+public class SamplingTurboFilter extends TurboFilter {
+    private final AtomicLong counter = new AtomicLong();
+
+    private String loggerName;
+    private int rate = 100;
+
+    public void setLoggerName(String loggerName) {
+        this.loggerName = loggerName;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || !logger.getName().equals(loggerName)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (rate <= 0) {
+            return FilterReply.DENY;
+        }
+        // isDebugEnabled() tez przechodzi przez filtr (bez formatu) - nie liczymy go, decyduje dopiero wlasciwy wpis
+        if (format == null) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (loggerName == null) {
+            addError("No loggerName set for " + getName());
+            return;
+        }
+        super.start();
+    }
+}
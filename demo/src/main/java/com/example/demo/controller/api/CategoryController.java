@@ -1,8 +1,12 @@
 package com.example.demo.controller.api;
 
 import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.domain.dto.Category.CategoryDeletionJobDTO;
 import com.example.demo.domain.dto.Category.CategoryReceiveDTO;
+import com.example.demo.domain.enums.CategoryDeleteMode;
+import com.example.demo.service.CategoryDeletionService;
 import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -10,10 +14,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -28,25 +35,39 @@ import java.util.UUID;
 @RequestMapping("/api/categories")
 public class CategoryController {
     private final CategoryService categoryService;
+    private final ResourceVersionService resourceVersionService;
+    private final CategoryDeletionService categoryDeletionService;
 
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, ResourceVersionService resourceVersionService, CategoryDeletionService categoryDeletionService) {
         this.categoryService = categoryService;
+        this.resourceVersionService = resourceVersionService;
+        this.categoryDeletionService = categoryDeletionService;
     }
 
     @Operation(
             summary = "Get all categories",
-            description = "Returns a list of all available task categories"
+            description = "Returns a list of all available task categories. Supports If-None-Match with the returned ETag"
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Categories fetched successfully",
                     content = @Content(schema = @Schema(implementation = CategoryDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Categories not modified since the given ETag",
+                    content = @Content
             )
     })
     @GetMapping
-    public ResponseEntity<List<CategoryDTO>> getCategories() {
-        return ResponseEntity.ok(categoryService.getCategories());
+    public ResponseEntity<List<CategoryDTO>> getCategories(WebRequest request) {
+        if (request.checkNotModified(resourceVersionService.categoriesEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(categoryService.getCategories());
     }
 
     @Operation(
@@ -114,22 +135,75 @@ public class CategoryController {
 
     @Operation(
             summary = "Delete category",
-            description = "Deletes a category and sets categoryId to NULL in related tasks"
+            description = "Deletes a category and sets categoryId in related tasks to NULL, or to reassignTo when given. "
+                    + "IMMEDIATE updates all tasks in one transaction. "
+                    + "CHUNKED updates them in committed batches before responding, so concurrent task writes are not blocked for the whole run. "
+                    + "BACKGROUND does the same in the background and returns a job to poll for progress. "
+                    + "The category row is deleted only when no task refers to it."
     )
     @ApiResponses({
             @ApiResponse(
                     responseCode = "204",
                     description = "Category deleted successfully"
             ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Background deletion accepted",
+                    content = @Content(schema = @Schema(implementation = CategoryDeletionJobDTO.class))
+            ),
             @ApiResponse(
                     responseCode = "404",
-                    description = "Category not found",
+                    description = "Category or target category not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Category is already being deleted or cannot receive the tasks",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Too many category deletions in progress",
                     content = @Content
             )
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCategory(@PathVariable UUID id) {
-        categoryService.deleteCategory(id);
+    public ResponseEntity<CategoryDeletionJobDTO> deleteCategory(
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "IMMEDIATE") CategoryDeleteMode mode,
+            @RequestParam(required = false) UUID reassignTo
+    ) {
+        switch (mode) {
+            case CHUNKED -> categoryDeletionService.deleteInBatches(id, reassignTo);
+            case BACKGROUND -> {
+                CategoryDeletionJobDTO job = categoryDeletionService.startDeletion(id, reassignTo);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/categories/deletions/" + job.getId()))
+                        .body(job);
+            }
+            default -> categoryService.deleteCategory(id, reassignTo);
+        }
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(
+            summary = "Get category deletion job",
+            description = "Returns status and progress of a background category deletion"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Job found",
+                    content = @Content(schema = @Schema(implementation = CategoryDeletionJobDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Job not found or expired",
+                    content = @Content
+            )
+    })
+    @GetMapping("/deletions/{jobId}")
+    public ResponseEntity<CategoryDeletionJobDTO> getDeletionJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(categoryDeletionService.getJob(jobId));
+    }
 }
@@ -1,26 +1,56 @@
 package com.example.demo.controller.api;
 
+import com.example.demo.domain.dto.Task.CsvImportResult;
+import com.example.demo.domain.dto.Task.TaskBatchResult;
+import com.example.demo.domain.dto.Task.TaskBatchStatusDTO;
+import com.example.demo.domain.dto.Task.TaskCursorPage;
+import com.example.demo.domain.dto.Task.TaskExportJobDTO;
 import com.example.demo.domain.dto.Task.TaskReceiveDTO;
 import com.example.demo.domain.dto.Task.TaskResponseDTO;
 import com.example.demo.domain.dto.Task.TasksDashboard;
 import com.example.demo.domain.enums.DeadlineFilter;
 import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.enums.TaskSort;
+import com.example.demo.domain.exceptions.InvalidSortException;
+import com.example.demo.service.ResourceVersionService;
+import com.example.demo.service.TaskBatchService;
+import com.example.demo.service.TaskCsvImportService;
+import com.example.demo.service.TaskExportService;
 import com.example.demo.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.Parameters;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
-import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.UUID;
 
 @Tag(
@@ -33,35 +63,141 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // LIKE '%...%' nie korzysta z indeksu i czyta wszystkie zadania uzytkownika - zastepuje go indeks wyszukiwania
+    private static final String TITLE_FILTER_DEPRECATION = "Deprecated: substring match on the title that scans all tasks. "
+            + "Use GET /api/tasks/search?q= instead; responses filtered by title carry Deprecation and Link headers";
 
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskCsvImportService taskCsvImportService;
+    private final ResourceVersionService resourceVersionService;
+    private final TaskExportService taskExportService;
 
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskBatchService taskBatchService, TaskCsvImportService taskCsvImportService, ResourceVersionService resourceVersionService, TaskExportService taskExportService) {
         this.taskService = taskService;
+        this.taskBatchService = taskBatchService;
+        this.taskCsvImportService = taskCsvImportService;
+        this.resourceVersionService = resourceVersionService;
+        this.taskExportService = taskExportService;
     }
 
     @Operation(
             summary = "Get tasks",
             description = "Returns a list of tasks for the logged-in user. "
-                    + "Tasks can be optionally filtered by status and category."
+                    + "Tasks can be optionally filtered by status and category. "
+                    + "The title filter is deprecated in favour of GET /api/tasks/search and will be removed; "
+                    + "responses filtered by title carry Deprecation and Link headers. "
+                    + "Order is chosen with sortBy and direction. "
+                    + "The legacy sort parameter is still accepted for createdAt, updatedAt, dueDate, title and status "
+                    + "and then takes precedence; any other sort property is rejected with 400. "
+                    + "Responses carry an ETag; send it back in If-None-Match to get 304 while the tasks are unchanged."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = TaskResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Tasks not modified since the given ETag", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Unsupported sort", content = @Content)
+    })
+    // w dokumentacji tylko page i size - kolejnosc wybiera sortBy, sort zostaje dla starych klientow
+    @Parameters({
+            @Parameter(name = "page", in = ParameterIn.QUERY, description = "Zero-based page index",
+                    schema = @Schema(type = "integer", defaultValue = "0")),
+            @Parameter(name = "size", in = ParameterIn.QUERY, description = "Page size",
+                    schema = @Schema(type = "integer", defaultValue = "20"))
     })
     @GetMapping
     public ResponseEntity<Page<TaskResponseDTO>> getTasks(
-            @RequestParam(required = false) @Schema(description = "Search by title") String title,
+            @RequestParam(required = false) @Schema(description = TITLE_FILTER_DEPRECATION, deprecated = true) String title,
             @RequestParam(required = false) @Schema(description = "Filter tasks by status", example = "TODO") Status status,
             @RequestParam(required = false) @Schema(description = "Filter tasks by category ID") UUID categoryId,
             @RequestParam(required = false) @Schema(description = "Filter tasks by before or after deadline") DeadlineFilter deadlineFilter,
-            @ParameterObject Pageable pageable
+            @RequestParam(defaultValue = "CREATED_AT") @Schema(description = "Sort order, every option is backed by an index") TaskSort sortBy,
+            @RequestParam(defaultValue = "DESC") @Schema(description = "Sort direction") Sort.Direction direction,
+            @Parameter(hidden = true) Pageable pageable,
+            WebRequest request
+    ) {
+        // stary parametr sort: znane pola tlumaczone na TaskSort, reszta to 400 zamiast cichego pominiecia
+        if (pageable.getSort().isSorted()) {
+            List<Sort.Order> orders = pageable.getSort().toList();
+            if (orders.size() > 1) {
+                throw new InvalidSortException("Tasks can be sorted by one property only");
+            }
+            Sort.Order order = orders.get(0);
+            sortBy = TaskSort.fromProperty(order.getProperty())
+                    .orElseThrow(() -> new InvalidSortException("Cannot sort tasks by " + order.getProperty()));
+            direction = order.getDirection();
+        }
+
+        // filtr terminu zalezy od biezacej chwili, wiec taka odpowiedz nie dostaje ETagu
+        if (deadlineFilter == null && request.checkNotModified(resourceVersionService.currentTasksEtag())) {
+            return null;
+        }
+        return titleFilterDeprecation(ResponseEntity.ok(), title)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(taskService.getTasks(title, status, categoryId, deadlineFilter, sortBy, direction, pageable));
+    }
+
+    @Operation(
+            summary = "Get tasks by cursor",
+            description = "Cursor (keyset) mode of GET /api/tasks, selected by passing the cursor parameter. "
+                    + "Send an empty cursor for the first slice and then the returned nextCursor. "
+                    + "Tasks are ordered by creation time and no total count is computed. "
+                    + "The title filter is deprecated in favour of GET /api/tasks/search."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Tasks retrieved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskCursorPage.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+    })
+    @GetMapping(params = "cursor")
+    public ResponseEntity<TaskCursorPage> getTasksByCursor(
+            @RequestParam @Schema(description = "Continuation token, empty for the first slice") String cursor,
+            @RequestParam(defaultValue = "10") @Schema(description = "Slice size, at most 100") int size,
+            @RequestParam(required = false) @Schema(description = TITLE_FILTER_DEPRECATION, deprecated = true) String title,
+            @RequestParam(required = false) @Schema(description = "Filter tasks by status", example = "TODO") Status status,
+            @RequestParam(required = false) @Schema(description = "Filter tasks by category ID") UUID categoryId,
+            @RequestParam(required = false) @Schema(description = "Filter tasks by before or after deadline") DeadlineFilter deadlineFilter
     ) {
-        return ResponseEntity.ok(taskService.getTasks(title, status, categoryId, deadlineFilter, pageable));
+        return titleFilterDeprecation(ResponseEntity.ok(), title)
+                .body(taskService.getTasksAfter(title, status, categoryId, deadlineFilter, cursor, size));
+    }
+
+    // klient uzywajacy filtra title dowiaduje sie o nastepcy z naglowkow, odpowiedz pozostaje bez zmian
+    private static ResponseEntity.BodyBuilder titleFilterDeprecation(ResponseEntity.BodyBuilder response, String title) {
+        if (title != null) {
+            response.header("Deprecation", "true")
+                    .header(HttpHeaders.LINK, "</api/tasks/search>; rel=\"successor-version\"");
+        }
+        return response;
     }
 
 
+    @Operation(
+            summary = "Search tasks",
+            description = "Full-text search over title and description of the logged-in user's tasks. "
+                    + "Every word of the query must match the beginning of a word in the task; "
+                    + "results are ranked, title matches first."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Ranked search results",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskResponseDTO.class)))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskResponseDTO>> searchTasks(
+            @RequestParam @Schema(description = "Words to search for") String q,
+            @RequestParam(defaultValue = "20") @Schema(description = "Maximum number of results, at most 100") int limit
+    ) {
+        return ResponseEntity.ok(taskService.searchTasks(q, limit));
+    }
+
     @Operation(
             summary = "Create a new task",
             description = "Creates a new task assigned to the logged-in user."
@@ -77,6 +213,54 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(taskService.addTask(task));
     }
 
+    @Operation(
+            summary = "Create tasks in batch",
+            description = "Creates up to 1000 tasks for the logged-in user in one transaction. "
+                    + "Invalid items are reported in the per-item results and do not stop the rest of the batch."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-item results, 201 for every created task",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskBatchResult.class))),
+            @ApiResponse(responseCode = "413", description = "Too many items in one batch", content = @Content)
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<TaskBatchResult> createTasks(@RequestBody @Schema(description = "Tasks to create") List<TaskReceiveDTO> tasks) {
+        return ResponseEntity.ok(taskBatchService.createTasks(tasks));
+    }
+
+    @Operation(
+            summary = "Update task statuses in batch",
+            description = "Changes the status of up to 1000 tasks in one transaction. "
+                    + "Unknown tasks are reported in the per-item results."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-item results, 200 for every updated task",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskBatchResult.class))),
+            @ApiResponse(responseCode = "413", description = "Too many items in one batch", content = @Content)
+    })
+    @PutMapping("/batch/status")
+    public ResponseEntity<TaskBatchResult> updateStatuses(@RequestBody @Schema(description = "Task IDs with their new status") List<TaskBatchStatusDTO> changes) {
+        return ResponseEntity.ok(taskBatchService.updateStatuses(changes));
+    }
+
+    @Operation(
+            summary = "Delete tasks in batch",
+            description = "Deletes up to 1000 tasks in one transaction. "
+                    + "Unknown tasks are reported in the per-item results."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Per-item results, 204 for every deleted task",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskBatchResult.class))),
+            @ApiResponse(responseCode = "413", description = "Too many items in one batch", content = @Content)
+    })
+    @DeleteMapping("/batch")
+    public ResponseEntity<TaskBatchResult> deleteTasks(@RequestBody @Schema(description = "IDs of tasks to delete") List<UUID> ids) {
+        return ResponseEntity.ok(taskBatchService.deleteTasks(ids));
+    }
+
     @Operation(
             summary = "Get task by ID",
             description = "Returns details of a single task by its ID."
@@ -125,7 +309,8 @@ public class TaskController {
 
     @Operation(
             summary = "Export tasks to CSV",
-            description = "Exports all tasks of the logged-in user as a CSV file."
+            description = "Exports all tasks of the logged-in user as a CSV file. "
+                    + "Rows are streamed to the client as they are read from the database."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "CSV file generated successfully",
@@ -133,27 +318,122 @@ public class TaskController {
             @ApiResponse(responseCode = "500", description = "Csv IOException thrown while making csv file", content = @Content)
     })
     @GetMapping("/export/csv")
-    public ResponseEntity<byte[]> exportCsv() {
-        byte[] csvBytes = taskService.exportTasksToCsv();
+    public ResponseEntity<StreamingResponseBody> exportCsv() {
+        StreamingResponseBody body = taskService::exportTasksToCsv;
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks.csv")
                 .contentType(MediaType.TEXT_PLAIN)
-                .body(csvBytes);
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Start CSV export job",
+            description = "Starts exporting all tasks of the logged-in user to a CSV file in the background. "
+                    + "Poll the returned job for progress and download the file when its status is DONE. "
+                    + "While an export of the user is still running, its job is returned instead of starting a new one."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Export job accepted",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskExportJobDTO.class))),
+            @ApiResponse(responseCode = "503", description = "Too many exports in progress", content = @Content)
+    })
+    @PostMapping("/export/jobs")
+    public ResponseEntity<TaskExportJobDTO> startExport() {
+        TaskExportJobDTO job = taskExportService.startExport();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/tasks/export/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @Operation(
+            summary = "Get CSV export job",
+            description = "Returns status and progress of an export job. Finished jobs are removed after expiresAt."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export job found",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskExportJobDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Export job not found", content = @Content)
+    })
+    @GetMapping("/export/jobs/{id}")
+    public ResponseEntity<TaskExportJobDTO> getExportJob(@PathVariable @Schema(description = "Export job ID") UUID id) {
+        return ResponseEntity.ok(taskExportService.getJob(id));
+    }
+
+    @Operation(
+            summary = "Download CSV export",
+            description = "Sends the file produced by a finished export job."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "CSV file",
+                    content = @Content(mediaType = "text/csv")),
+            @ApiResponse(responseCode = "404", description = "Export job not found or expired", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Export is not finished yet", content = @Content)
+    })
+    @GetMapping("/export/jobs/{id}/file")
+    public void downloadExport(@PathVariable @Schema(description = "Export job ID") UUID id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = taskExportService.getExportFile(id);
+        long size = Files.size(file);
+
+        response.setContentType("text/csv");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks.csv");
+        response.setContentLengthLong(size);
+
+        // tomcat wysyla plik sam po powrocie z kontrolera przez sendfile (FileChannel.transferTo do gniazda), bez kopiowania przez JVM
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    @Operation(
+            summary = "Import tasks from CSV",
+            description = "Creates tasks for the logged-in user from a CSV file in the export format. "
+                    + "Title, Status and Due Date columns are required, categories are matched by name. "
+                    + "The file is read row by row; invalid rows are skipped and reported with their line number."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import finished",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CsvImportResult.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or malformed CSV file, or missing required column", content = @Content)
+    })
+    @PostMapping(value = "/import/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CsvImportResult> importCsv(@RequestParam("file") @Schema(description = "CSV file to import") MultipartFile file) {
+        return ResponseEntity.ok(taskCsvImportService.importTasks(file));
     }
 
     @Operation(
             summary = "Get tasks dashboard",
-            description = "Returns task statistics including total count, status counts and completion percentage."
+            description = "Returns task statistics including total count, status counts and completion percentage. "
+                    + "Supports If-None-Match like GET /api/tasks."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Dashboard data retrieved",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = TasksDashboard.class)))
+                            schema = @Schema(implementation = TasksDashboard.class))),
+            @ApiResponse(responseCode = "304", description = "Dashboard not modified since the given ETag", content = @Content)
     })
     @GetMapping("/dashboard")
-    public ResponseEntity<TasksDashboard> getDashboardTasks() {
-        return ResponseEntity.ok(taskService.getTasksDashboard());
+    public ResponseEntity<TasksDashboard> getDashboardTasks(WebRequest request) {
+        if (request.checkNotModified(resourceVersionService.currentDashboardEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(taskService.getTasksDashboard());
     }
 
     @Operation(
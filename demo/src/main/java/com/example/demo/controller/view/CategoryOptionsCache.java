@@ -0,0 +1,70 @@
+package com.example.demo.controller.view;
+
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.Set;
+import java.util.UUID;
+
+// <option> kategorii dla list wyboru w tasks.html i task-form.html, renderowane raz na wersje kategorii
+// wersja to ETag kategorii - kazdy zapis kategorii go zmienia, wiec nastepne zadanie renderuje od nowa
+@Component
+public class CategoryOptionsCache {
+    private final CategoryService categoryService;
+    private final ResourceVersionService resourceVersionService;
+    private final ITemplateEngine templateEngine;
+    // bez cache szablonow (dev) renderujemy za kazdym razem, zeby zmiany w szablonie byly od razu widoczne
+    private final boolean enabled;
+
+    private volatile Rendered rendered;
+
+    @Autowired
+    public CategoryOptionsCache(
+            CategoryService categoryService,
+            ResourceVersionService resourceVersionService,
+            ITemplateEngine templateEngine,
+            @Value("${spring.thymeleaf.cache:true}") boolean enabled
+    ) {
+        this.categoryService = categoryService;
+        this.resourceVersionService = resourceVersionService;
+        this.templateEngine = templateEngine;
+        this.enabled = enabled;
+    }
+
+    // selected - kategoria zaznaczona na liscie, null gdy zadna
+    public String render(UUID selected) {
+        String html = options();
+
+        if (selected == null) {
+            return html;
+        }
+        // id to uuid, wiec wartosc wystepuje w kodzie opcji dokladnie raz
+        String value = "value=\"" + selected + "\"";
+        return html.replace(value, value + " selected=\"selected\"");
+    }
+
+    private String options() {
+        // wersja czytana przed kategoriami - przy rownoleglym zapisie zapisujemy co najwyzej nowsze dane pod starsza wersja
+        String version = resourceVersionService.categoriesEtag();
+        Rendered current = rendered;
+
+        if (enabled && current != null && current.version().equals(version)) {
+            return current.html();
+        }
+
+        Context context = new Context();
+        context.setVariable("categories", categoryService.getCategories());
+        String html = templateEngine.process("category-options", Set.of("options"), context);
+
+        rendered = new Rendered(version, html);
+        return html;
+    }
+
+    private record Rendered(String version, String html) {
+    }
+}
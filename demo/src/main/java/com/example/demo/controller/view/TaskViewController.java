@@ -1,13 +1,11 @@
 package com.example.demo.controller.view;
 
+import com.example.demo.domain.dto.Task.TaskCursorPage;
 import com.example.demo.domain.dto.Task.TaskReceiveDTO;
 import com.example.demo.domain.dto.Task.TaskResponseDTO;
 import com.example.demo.domain.enums.Status;
-import com.example.demo.service.CategoryService;
 import com.example.demo.service.TaskService;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -18,14 +16,15 @@ import java.util.UUID;
 @Controller
 @RequestMapping("/tasks")
 public class TaskViewController {
+    private static final int PAGE_SIZE = 20;
 
     private final TaskService taskService;
-    private final CategoryService categoryService;
+    private final CategoryOptionsCache categoryOptionsCache;
 
     public TaskViewController(TaskService taskService,
-                              CategoryService categoryService) {
+                              CategoryOptionsCache categoryOptionsCache) {
         this.taskService = taskService;
-        this.categoryService = categoryService;
+        this.categoryOptionsCache = categoryOptionsCache;
     }
 
     @GetMapping
@@ -34,16 +33,19 @@ public class TaskViewController {
             @RequestParam(required = false) UUID categoryId,
             Model model) {
 
-        Page<TaskResponseDTO> page = taskService.getTasks(
+        // tylko pierwsza porcja, reszta doczytywana przez /tasks/more
+        TaskCursorPage page = taskService.getTasksAfter(
                 null,
                 status,
                 categoryId,
                 null,
-                Pageable.unpaged()
+                null,
+                PAGE_SIZE
         );
 
         model.addAttribute("tasks", page.getContent());
-        model.addAttribute("categories", categoryService.getCategories());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("categoryOptions", categoryOptionsCache.render(categoryId));
         model.addAttribute("statuses", Status.values());
 
         model.addAttribute("selectedStatus", status);
@@ -52,10 +54,35 @@ public class TaskViewController {
         return "tasks";
     }
 
+    @GetMapping("/more")
+    public String moreTasks(
+            @RequestParam String cursor,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) UUID categoryId,
+            Model model) {
+
+        TaskCursorPage page = taskService.getTasksAfter(
+                null,
+                status,
+                categoryId,
+                null,
+                cursor,
+                PAGE_SIZE
+        );
+
+        model.addAttribute("tasks", page.getContent());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("selectedStatus", status);
+        model.addAttribute("selectedCategory", categoryId);
+
+        // sam fragment z wierszami listy, bez layoutu
+        return "task-items :: items";
+    }
+
     @GetMapping("/add")
     public String addTaskForm(Model model) {
         model.addAttribute("task", new TaskReceiveDTO());
-        model.addAttribute("categories", categoryService.getCategories());
+        model.addAttribute("categoryOptions", categoryOptionsCache.render(null));
         model.addAttribute("statuses", Status.values());
         model.addAttribute("edit", false);
         return "task-form";
@@ -75,7 +102,7 @@ public class TaskViewController {
             Model model) {
 
         if (result.hasErrors()) {
-            model.addAttribute("categories", categoryService.getCategories());
+            model.addAttribute("categoryOptions", categoryOptionsCache.render(task.getCategoryId()));
             model.addAttribute("statuses", Status.values());
             model.addAttribute("edit", false);
             return "task-form";
@@ -100,7 +127,7 @@ public class TaskViewController {
         );
 
         model.addAttribute("task", dto);
-        model.addAttribute("categories", categoryService.getCategories());
+        model.addAttribute("categoryOptions", categoryOptionsCache.render(dto.getCategoryId()));
         model.addAttribute("statuses", Status.values());
         model.addAttribute("taskId", id);
         model.addAttribute("edit", true);
@@ -116,7 +143,7 @@ public class TaskViewController {
             Model model) {
 
         if (result.hasErrors()) {
-            model.addAttribute("categories", categoryService.getCategories());
+            model.addAttribute("categoryOptions", categoryOptionsCache.render(task.getCategoryId()));
             model.addAttribute("statuses", Status.values());
             model.addAttribute("taskId", id);
             model.addAttribute("edit", true);
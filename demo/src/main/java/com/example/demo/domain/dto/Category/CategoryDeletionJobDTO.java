@@ -0,0 +1,40 @@
+package com.example.demo.domain.dto.Category;
+
+import com.example.demo.domain.enums.CategoryDeletionStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class CategoryDeletionJobDTO {
+    private UUID id;
+
+    private UUID categoryId;
+
+    // null - zadania zostaja bez kategorii
+    private UUID reassignTo;
+
+    private CategoryDeletionStatus status;
+
+    private long tasksMoved;
+
+    // liczba zadan z kategoria w chwili zlecenia, zapisy w trakcie moga ja jeszcze zmienic
+    private long totalTasks;
+
+    private int batches;
+
+    private int progress;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    private LocalDateTime expiresAt;
+
+    private String error;
+}
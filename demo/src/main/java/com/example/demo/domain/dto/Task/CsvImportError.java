@@ -0,0 +1,17 @@
+package com.example.demo.domain.dto.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CsvImportError {
+    // numer linii w pliku, naglowek to linia 1
+    private long line;
+
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.example.demo.domain.dto.Task;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class CsvImportResult {
+    private long imported = 0;
+
+    private long failed = 0;
+
+    private List<CsvImportError> errors = new ArrayList<>();
+
+    // true gdy bledow bylo wiecej niz zwracamy w errors
+    private boolean errorsTruncated = false;
+}
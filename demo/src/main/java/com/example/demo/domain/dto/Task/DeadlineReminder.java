@@ -0,0 +1,24 @@
+package com.example.demo.domain.dto.Task;
+
+import com.example.demo.domain.enums.ReminderType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class DeadlineReminder {
+    private ReminderType type;
+
+    private UUID taskId;
+
+    private UUID userId;
+
+    private String title;
+
+    private LocalDateTime dueDate;
+}
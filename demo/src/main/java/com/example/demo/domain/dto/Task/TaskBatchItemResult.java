@@ -0,0 +1,34 @@
+package com.example.demo.domain.dto.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskBatchItemResult {
+    // pozycja w tablicy z zadania, zeby klient mogl dopasowac wynik do wyslanego elementu
+    private int index;
+
+    private UUID id;
+
+    // taki sam kod jaki zwrocilby pojedynczy endpoint dla tego elementu
+    private int httpStatus;
+
+    private String error;
+
+    private TaskResponseDTO task;
+
+    public static TaskBatchItemResult success(int index, UUID id, int httpStatus, TaskResponseDTO task) {
+        return new TaskBatchItemResult(index, id, httpStatus, null, task);
+    }
+
+    public static TaskBatchItemResult failure(int index, UUID id, int httpStatus, String error) {
+        return new TaskBatchItemResult(index, id, httpStatus, error, null);
+    }
+}
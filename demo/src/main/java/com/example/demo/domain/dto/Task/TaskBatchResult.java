@@ -0,0 +1,25 @@
+package com.example.demo.domain.dto.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskBatchResult {
+    private int succeeded;
+
+    private int failed;
+
+    private List<TaskBatchItemResult> items;
+
+    public static TaskBatchResult of(List<TaskBatchItemResult> items) {
+        int succeeded = (int) items.stream().filter(item -> item.getError() == null).count();
+        return new TaskBatchResult(succeeded, items.size() - succeeded, items);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.domain.dto.Task;
+
+import com.example.demo.domain.enums.Status;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskBatchStatusDTO {
+
+    @NotNull(message = "Task id must not be null")
+    private UUID id;
+
+    @NotNull(message = "Status must not be null")
+    private Status status;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.domain.dto.Task;
+
+import com.example.demo.domain.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// plaski wiersz do eksportu - nie jest encja wiec hibernate nie trzyma go w persistence context
+@AllArgsConstructor
+@Getter
+public class TaskCsvRow {
+    private UUID id;
+
+    private String title;
+
+    private String description;
+
+    private Status status;
+
+    private LocalDateTime dueDate;
+
+    private String categoryName;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,43 @@
+package com.example.demo.domain.dto.Task;
+
+import com.example.demo.domain.exceptions.InvalidCursorException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+// pozycja ostatniego zwroconego zadania (createdAt, id), dla klienta to tylko nieprzezroczysty token
+@AllArgsConstructor
+@Getter
+public class TaskCursor {
+    // przed pierwszym zadaniem - kazde createdAt jest pozniejsze
+    public static final TaskCursor START = new TaskCursor(LocalDateTime.of(1970, 1, 1, 0, 0), new UUID(0L, 0L));
+
+    private final LocalDateTime createdAt;
+
+    private final UUID id;
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+
+            if (parts.length != 2) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+
+            return new TaskCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.domain.dto.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskCursorPage {
+    private List<TaskResponseDTO> content;
+
+    // null gdy nie ma juz kolejnych zadan
+    private String nextCursor;
+}
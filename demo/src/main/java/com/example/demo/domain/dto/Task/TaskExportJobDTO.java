@@ -0,0 +1,34 @@
+package com.example.demo.domain.dto.Task;
+
+import com.example.demo.domain.enums.ExportStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class TaskExportJobDTO {
+    private UUID id;
+
+    private ExportStatus status;
+
+    private long rowsWritten;
+
+    // liczba zadan w chwili zlecenia, wiec przy rownoleglych zmianach postep moze minac 100%
+    private long totalRows;
+
+    private int progress;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    // po tym czasie plik jest usuwany, a job znika
+    private LocalDateTime expiresAt;
+
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.domain.dto.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// tylko pola potrzebne do zaplanowania przypomnien o terminie
+@AllArgsConstructor
+@Getter
+public class TaskReminderRow {
+    private UUID id;
+
+    private UUID userId;
+
+    private String title;
+
+    private LocalDateTime dueDate;
+}
@@ -30,4 +30,25 @@ public class TaskResponseDTO {
     private LocalDateTime createdAt;
 
     private LocalDateTime updatedAt;
+
+    // konstruktor dla projekcji JPQL (SELECT new ...) - kategoria przychodzi jako plaskie kolumny z LEFT JOIN
+    public TaskResponseDTO(UUID id, String title, String description, Status status, LocalDateTime dueDate,
+                           UUID categoryId, String categoryName, String categoryColor,
+                           UUID userId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.dueDate = dueDate;
+        this.userId = userId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+
+        if (categoryId != null) {
+            this.category = new CategoryDTO();
+            this.category.setId(categoryId);
+            this.category.setName(categoryName);
+            this.category.setColor(categoryColor);
+        }
+    }
 }
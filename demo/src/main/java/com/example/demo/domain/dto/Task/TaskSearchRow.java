@@ -0,0 +1,19 @@
+package com.example.demo.domain.dto.Task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// tylko pola potrzebne do zbudowania indeksu wyszukiwania
+@AllArgsConstructor
+@Getter
+public class TaskSearchRow {
+    private UUID id;
+
+    private UUID userId;
+
+    private String title;
+
+    private String description;
+}
@@ -0,0 +1,18 @@
+package com.example.demo.domain.dto.Task;
+
+import com.example.demo.domain.enums.Status;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+// wynik zmiany statusu jednym UPDATE: poprzedni status do licznikow i zadanie po zmianie, kategoria tylko jako id
+@AllArgsConstructor
+@Getter
+public class TaskStatusChange {
+    private Status previousStatus;
+
+    private UUID categoryId;
+
+    private TaskResponseDTO task;
+}
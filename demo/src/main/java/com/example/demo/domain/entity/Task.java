@@ -1,6 +1,7 @@
 package com.example.demo.domain.entity;
 
 import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,12 +12,23 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name="task")
+// indeksy pod zapytania z TaskPageDao, TaskRepository i DashboardJdbcDao, user_id zawsze pierwszy bo kazde zapytanie filtruje po wlascicielu
+// indeksy (user_id, kolumny sortowania, id) odpowiadaja wartosciom TaskSort - strona listy to odczyt zakresu indeksu
+// indeksy filtrow (status, kategoria) dzialaja tylko gdy warunek jest w SQL wprost, jak w TaskPageDao - nie przy "(:x IS NULL OR ...)"
+@Table(name="task", indexes = {
+        @Index(name = "idx_task_user_status_due", columnList = "user_id, status, due_date, id"),
+        @Index(name = "idx_task_user_category", columnList = "user_id, category_id"),
+        @Index(name = "idx_task_category", columnList = "category_id"),
+        @Index(name = "idx_task_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_task_user_updated", columnList = "user_id, updated_at, id"),
+        @Index(name = "idx_task_user_due", columnList = "user_id, due_date, id"),
+        @Index(name = "idx_task_user_title", columnList = "user_id, title, id")
+})
 @Getter
 @Setter
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(name = "title", nullable = false)
@@ -0,0 +1,42 @@
+package com.example.demo.domain.entity;
+
+import com.example.demo.domain.enums.Status;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+// licznik zadan uzytkownika w danym statusie, zmieniany w tej samej transakcji co zadania - zapisuje go TaskStatusCountDao
+@Entity
+@Table(name = "task_status_count")
+@IdClass(TaskStatusCount.Key.class)
+@Getter
+@Setter
+public class TaskStatusCount {
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "cnt", nullable = false)
+    private long count;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @Getter
+    @Setter
+    public static class Key implements Serializable {
+        private UUID userId;
+        private Status status;
+    }
+}
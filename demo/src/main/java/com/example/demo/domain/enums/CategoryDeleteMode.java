@@ -0,0 +1,6 @@
+package com.example.demo.domain.enums;
+
+// IMMEDIATE - jedna transakcja, CHUNKED - paczki w biezacym zadaniu, BACKGROUND - paczki w tle z postepem
+public enum CategoryDeleteMode {
+    IMMEDIATE, CHUNKED, BACKGROUND
+}
@@ -0,0 +1,5 @@
+package com.example.demo.domain.enums;
+
+public enum CategoryDeletionStatus {
+    QUEUED, RUNNING, DONE, FAILED
+}
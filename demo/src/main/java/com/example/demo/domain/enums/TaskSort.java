@@ -1,5 +1,34 @@
 package com.example.demo.domain.enums;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+// dozwolone sortowania listy zadan, kazde ma indeks (user_id, kolumny, id) w Task
+// property to nazwa pola, ktora klienci podawali wczesniej w parametrze sort
 public enum TaskSort {
-    CREATED_AT, STATUS
+    CREATED_AT("createdAt", "created_at"),
+    UPDATED_AT("updatedAt", "updated_at"),
+    DUE_DATE("dueDate", "due_date"),
+    TITLE("title", "title"),
+    // w obrebie statusu najblizszy termin pierwszy
+    STATUS("status", "status", "due_date");
+
+    private final String property;
+    private final List<String> columns;
+
+    TaskSort(String property, String... columns) {
+        this.property = property;
+        this.columns = List.of(columns);
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public static Optional<TaskSort> fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(sort -> sort.property.equals(property))
+                .findFirst();
+    }
 }
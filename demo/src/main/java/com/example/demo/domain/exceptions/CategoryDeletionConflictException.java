@@ -0,0 +1,7 @@
+package com.example.demo.domain.exceptions;
+
+public class CategoryDeletionConflictException extends RuntimeException {
+    public CategoryDeletionConflictException(String message) {
+        super(message);
+    }
+}
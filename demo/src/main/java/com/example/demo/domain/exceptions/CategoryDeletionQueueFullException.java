@@ -0,0 +1,7 @@
+package com.example.demo.domain.exceptions;
+
+public class CategoryDeletionQueueFullException extends RuntimeException {
+    public CategoryDeletionQueueFullException(String message) {
+        super(message);
+    }
+}
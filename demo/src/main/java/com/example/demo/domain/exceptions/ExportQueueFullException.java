@@ -0,0 +1,7 @@
+package com.example.demo.domain.exceptions;
+
+public class ExportQueueFullException extends RuntimeException {
+    public ExportQueueFullException(String message) {
+        super(message);
+    }
+}
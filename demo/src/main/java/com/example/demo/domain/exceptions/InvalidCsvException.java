@@ -0,0 +1,7 @@
+package com.example.demo.domain.exceptions;
+
+public class InvalidCsvException extends RuntimeException {
+    public InvalidCsvException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.domain.exceptions;
+
+public class InvalidSortException extends RuntimeException {
+    public InvalidSortException(String message) {
+        super(message);
+    }
+}
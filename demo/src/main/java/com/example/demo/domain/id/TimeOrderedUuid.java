@@ -0,0 +1,56 @@
+package com.example.demo.domain.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UUID w wersji 7 (RFC 9562): 48 bitow czasu unix w ms, wersja, 12 bitow licznika, wariant i 62 losowe bity
+// kolejne klucze trafiaja na koniec indeksu glownego zamiast w losowe strony jak UUID.randomUUID()
+public final class TimeOrderedUuid {
+    private static final long VERSION_7 = 0x7000L;
+    private static final long COUNTER_MASK = 0x0FFFL;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    // losowa czesc jak w v4 z SecureRandom - id zadan sa w URL-ach, nie moga byc przewidywalne
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // ostatnia starsza polowa: w tej samej milisekundzie kolejne id dostaja licznik +1, wiec rosna scisle tez miedzy watkami
+    private static final AtomicLong lastMostSignificant = new AtomicLong();
+
+    private TimeOrderedUuid() {
+    }
+
+    public static UUID next() {
+        return new UUID(nextMostSignificant(System.currentTimeMillis()), VARIANT | (RANDOM.nextLong() & RANDOM_MASK));
+    }
+
+    public static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    static long nextMostSignificant(long millis) {
+        while (true) {
+            long last = lastMostSignificant.get();
+            long next;
+
+            if (millis > timestampOf(last)) {
+                // nowa milisekunda - licznik od losowej wartosci z dolnej polowy, zostaje miejsce na kolejne id
+                next = (millis << 16) | VERSION_7 | RANDOM.nextInt(0x800);
+            } else if ((last & COUNTER_MASK) < COUNTER_MASK) {
+                next = last + 1;
+            } else {
+                // licznik wyczerpany (albo zegar cofniety) - pozyczamy nastepna milisekunde
+                next = ((timestampOf(last) + 1) << 16) | VERSION_7;
+            }
+
+            if (lastMostSignificant.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static long timestampOf(long mostSignificant) {
+        return mostSignificant >>> 16;
+    }
+}
@@ -12,4 +12,9 @@ public interface TaskMapper {
 
     @Mapping(source = "user.id", target = "userId")
     TaskResponseDTO mapToResponseDTO(Task task);
+
+    // kategoria bywa tylko referencja (getReferenceById), jej odczyt wywolalby dodatkowy SELECT
+    @Mapping(source = "user.id", target = "userId")
+    @Mapping(target = "category", ignore = true)
+    TaskResponseDTO mapToResponseDTOWithoutCategory(Task task);
 }
@@ -1,18 +1,31 @@
 package com.example.demo.repository;
 
+import com.example.demo.domain.dto.Task.TaskCsvRow;
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.dto.Task.TaskReminderRow;
+import com.example.demo.domain.dto.Task.TaskSearchRow;
 import com.example.demo.domain.enums.DeadlineFilter;
 import com.example.demo.domain.enums.Status;
 import com.example.demo.domain.entity.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface TaskRepository extends JpaRepository<Task, UUID> {
     // czyscimy cache aby zaktualizowane dane byly, zapisuje zmiany do bazy przed wykonaniem zapytania
@@ -20,26 +33,103 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     @Query("UPDATE Task t SET t.category = null where t.category.id = :categoryId")
     void clearCategory(@Param("categoryId") UUID categoryId);
 
+    // blokada wiersza do konca transakcji: stary status jest pewny przy zmianie licznikow w task_status_count
+    // bez JOIN FETCH, zeby FOR UPDATE nie blokowal tez wiersza kategorii; cudze zadanie jak nieistniejace
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id AND t.user.id = :userId")
+    Optional<Task> findOwnedForUpdate(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // operacje wsadowe: jeden SELECT / DELETE z IN zamiast zapytania na kazdy element
+    // wiersze blokowane po kolei wedlug id, zeby dwie nakladajace sie paczki sie nie zakleszczyly
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id IN :ids AND t.user.id = :userId ORDER BY t.id")
+    List<Task> findOwnedForUpdateIn(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Task t WHERE t.id IN :ids AND t.user.id = :userId")
+    int deleteOwnedIn(@Param("ids") Collection<UUID> ids, @Param("userId") UUID userId);
+
     @Query("SELECT t FROM Task t WHERE t.user.id = :userId")
     List<Task> findByUserId(@Param("userId") UUID userId);
 
-    // sprwadzanie null jest po to aby jesli nie wporwadzono to nie szukac po statusie
+    // kursor tylko do przodu, wiersze czytane paczkami po fetch size zamiast calej listy naraz
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    SELECT new com.example.demo.domain.dto.Task.TaskCsvRow(
+        t.id, t.title, t.description, t.status, t.dueDate, c.name, t.createdAt, t.updatedAt
+    )
+    FROM Task t
+    LEFT JOIN t.category c
+    WHERE t.user.id = :userId
+""")
+    Stream<TaskCsvRow> streamCsvRowsByUserId(@Param("userId") UUID userId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.example.demo.domain.dto.Task.TaskSearchRow(t.id, t.user.id, t.title, t.description) FROM Task t")
+    Stream<TaskSearchRow> streamSearchRows();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    SELECT new com.example.demo.domain.dto.Task.TaskReminderRow(t.id, t.user.id, t.title, t.dueDate)
+    FROM Task t
+    WHERE t.status <> :done AND t.dueDate > :after
+""")
+    Stream<TaskReminderRow> streamReminderRows(@Param("done") Status done, @Param("after") LocalDateTime after);
+
+    // wiersze strony wybranej przez TaskPageDao, wyszukiwane po kluczu glownym - kolejnosc ustala serwis
+    @Query("""
+    SELECT new com.example.demo.domain.dto.Task.TaskResponseDTO(
+        t.id, t.title, t.description, t.status, t.dueDate,
+        c.id, c.name, c.color,
+        t.user.id, t.createdAt, t.updatedAt
+    )
+    FROM Task t
+    LEFT JOIN t.category c
+    WHERE t.id IN :ids
+""")
+    List<TaskResponseDTO> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // keyset: zamiast OFFSET szukamy od pozycji kursora po indeksie (user_id, created_at, id), bez COUNT
+    // user_id w ORDER BY jak w TaskPageDao - bez niego H2 sortuje caly zakres zamiast czytac indeks po kolei
+    // filtry "(:x IS NULL OR ...)" nie trafiaja do indeksu, sa sprawdzane na kolejnych wierszach zakresu
+    // LIKE po tytule zostaje tylko dla przestarzalego parametru title, wyszukiwanie idzie przez TaskSearchIndex
+    // projekcja z LEFT JOIN jak przy stronach z OFFSET - kategoria bez osobnego zapytania na kazdy wiersz
     @Query("""
-    SELECT t FROM Task t
+    SELECT new com.example.demo.domain.dto.Task.TaskResponseDTO(
+        t.id, t.title, t.description, t.status, t.dueDate,
+        c.id, c.name, c.color,
+        t.user.id, t.createdAt, t.updatedAt
+    )
+    FROM Task t
+    LEFT JOIN t.category c
     WHERE t.user.id = :userId
     AND (:title IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :title, '%')))
     AND (:status IS NULL OR t.status = :status)
-    AND (:categoryId IS NULL OR t.category.id = :categoryId)
+    AND (:categoryId IS NULL OR c.id = :categoryId)
     AND (:before IS NULL OR t.dueDate < :before)
     AND (:after IS NULL OR t.dueDate > :after)
+    AND t.createdAt >= :cursorCreatedAt
+    AND (t.createdAt > :cursorCreatedAt OR t.id > :cursorId)
+    ORDER BY t.user.id, t.createdAt, t.id
 """)
-    Page<Task> findFiltered(
+    List<TaskResponseDTO> findFilteredAfter(
             @Param("userId") UUID userId,
             @Param("title") String title,
             @Param("status") Status status,
             @Param("categoryId") UUID categoryId,
             @Param("before") LocalDateTime before,
             @Param("after") LocalDateTime after,
-            Pageable pageable
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") UUID cursorId,
+            Limit limit
     );
 }
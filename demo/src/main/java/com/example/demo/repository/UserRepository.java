@@ -1,11 +1,24 @@
 package com.example.demo.repository;
 
 import com.example.demo.domain.entity.User;
+import com.example.demo.security.model.CustomUserDetails;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
+
+    // do logowania wystarcza trzy kolumny, bez ladowania encji do kontekstu persystencji
+    @Query("SELECT new com.example.demo.security.model.CustomUserDetails(u.id, u.username, u.password) FROM User u WHERE u.username = :username")
+    Optional<CustomUserDetails> findCredentialsByUsername(@Param("username") String username);
+
+    // przepisanie hasha przy logowaniu (nowy koszt bcrypta), bez ladowania encji
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
@@ -1,12 +1,14 @@
 package com.example.demo.repository.dao;
 
 import com.example.demo.domain.entity.Category;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
 
+@Timed(value = "app.dao", histogram = true)
 @Repository
 public class CategoryDao {
     private final JdbcTemplate jdbcTemplate;
@@ -51,4 +53,42 @@ public class CategoryDao {
         String sql = "DELETE FROM category WHERE id = ?";
         return jdbcTemplate.update(sql, id);
     }
+
+    // kategoria znika tylko wtedy, gdy zadne zadanie juz jej nie wskazuje
+    public int deleteIfUnused(UUID id) {
+        String sql = """
+            DELETE FROM category
+            WHERE id = ?
+            AND NOT EXISTS (SELECT 1 FROM task WHERE category_id = ?)
+        """;
+
+        return jdbcTemplate.update(sql, id, id);
+    }
+
+    public long countTasks(UUID id) {
+        String sql = "SELECT COUNT(*) FROM task WHERE category_id = ?";
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, id);
+        return count != null ? count : 0;
+    }
+
+    // wszystkie zadania naraz do innej kategorii, toId = null zostawia je bez kategorii
+    public int moveAllTasks(UUID fromId, UUID toId) {
+        String sql = "UPDATE task SET category_id = ? WHERE category_id = ?";
+        return jdbcTemplate.update(sql, toId, fromId);
+    }
+
+    // jedna paczka zadan wybrana po indeksie idx_task_category - blokuje najwyzej limit wierszy
+    public int moveTasks(UUID fromId, UUID toId, int limit) {
+        String sql = """
+            UPDATE task
+            SET category_id = ?
+            WHERE id IN (
+                SELECT id FROM task
+                WHERE category_id = ?
+                FETCH FIRST ? ROWS ONLY
+            )
+        """;
+
+        return jdbcTemplate.update(sql, toId, fromId, limit);
+    }
 }
@@ -1,11 +1,15 @@
 package com.example.demo.repository.dao;
 
 import com.example.demo.domain.enums.Status;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.UUID;
 
+@Timed(value = "app.dao", histogram = true)
 @Repository
 public class DashboardJdbcDao {
 
@@ -35,4 +39,22 @@ public class DashboardJdbcDao {
 
         return result != null ? result : 0L;
     }
+
+    // jedno zapytanie zamiast osobnego COUNT dla kazdego statusu, nowe statusy dochodza same
+    public Map<Status, Long> countGroupedByStatus(UUID userId) {
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, 0L);
+        }
+
+        jdbcTemplate.query(
+                "SELECT status, COUNT(*) AS cnt FROM task WHERE user_id = ? GROUP BY status",
+                rs -> {
+                    counts.put(Status.valueOf(rs.getString("status")), rs.getLong("cnt"));
+                },
+                userId
+        );
+
+        return counts;
+    }
 }
@@ -0,0 +1,92 @@
+package com.example.demo.repository.dao;
+
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.enums.TaskSort;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// strona listy zadan w dwoch krokach: najpierw same id z indeksu (user_id, kolumny TaskSort, id), potem wiersze po kluczu
+// zapytanie o pelne wiersze nie jest pokryte indeksem i H2 wybiera wtedy indeks klucza obcego user_id, sortujac wszystkie zadania
+@Timed(value = "app.dao", histogram = true)
+@Repository
+public class TaskPageDao {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskPageDao(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<UUID> findPageIds(UUID userId, String title, Status status, UUID categoryId,
+                                  LocalDateTime before, LocalDateTime after,
+                                  TaskSort sort, Sort.Direction direction, long offset, int limit) {
+        List<Object> args = new ArrayList<>();
+        String where = where(userId, title, status, categoryId, before, after, args);
+
+        // filtry tylko gdy sa podane - warunek "? IS NULL OR ..." wciagalby kolumne do zapytania i indeks przestalby je pokrywac
+        // user_id (i status przy filtrze) maja stala wartosc, ale musza byc w ORDER BY, zeby kolejnosc zaczynala sie jak indeks
+        List<String> orderBy = new ArrayList<>();
+        orderBy.add("user_id");
+        if (status != null && sort != TaskSort.STATUS) {
+            orderBy.add("status");
+        }
+        orderBy.addAll(sort.getColumns());
+        orderBy.add("id");
+
+        String dir = direction.isAscending() ? " ASC" : " DESC";
+        String sql = "SELECT id FROM task" + where
+                + " ORDER BY " + String.join(dir + ", ", orderBy) + dir
+                + " OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
+        args.add(offset);
+        args.add(limit);
+
+        return jdbcTemplate.queryForList(sql, UUID.class, args.toArray());
+    }
+
+    public long count(UUID userId, String title, Status status, UUID categoryId, LocalDateTime before, LocalDateTime after) {
+        List<Object> args = new ArrayList<>();
+        String where = where(userId, title, status, categoryId, before, after, args);
+
+        Long result = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task" + where, Long.class, args.toArray());
+
+        return result != null ? result : 0L;
+    }
+
+    private static String where(UUID userId, String title, Status status, UUID categoryId,
+                                LocalDateTime before, LocalDateTime after, List<Object> args) {
+        StringBuilder where = new StringBuilder(" WHERE user_id = ?");
+        args.add(userId);
+
+        // LIKE '%...%' czyta wszystkie zadania uzytkownika - zostaje tylko dla przestarzalego parametru title,
+        // wyszukiwanie po tytule i opisie idzie przez TaskSearchIndex (GET /api/tasks/search)
+        if (title != null) {
+            where.append(" AND LOWER(title) LIKE LOWER(CONCAT('%', ?, '%'))");
+            args.add(title);
+        }
+        if (status != null) {
+            where.append(" AND status = ?");
+            args.add(status.name());
+        }
+        if (categoryId != null) {
+            where.append(" AND category_id = ?");
+            args.add(categoryId);
+        }
+        if (before != null) {
+            where.append(" AND due_date < ?");
+            args.add(before);
+        }
+        if (after != null) {
+            where.append(" AND due_date > ?");
+            args.add(after);
+        }
+
+        return where.toString();
+    }
+}
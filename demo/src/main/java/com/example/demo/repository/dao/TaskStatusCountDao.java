@@ -0,0 +1,132 @@
+package com.example.demo.repository.dao;
+
+import com.example.demo.domain.enums.Status;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Timed(value = "app.dao", histogram = true)
+@Repository
+public class TaskStatusCountDao {
+    // dodaje delte do licznika, brakujacy wiersz zaklada - MERGE blokuje wiersz licznika do konca transakcji
+    private static final String ADD_SQL = """
+            MERGE INTO task_status_count c
+            USING (VALUES (CAST(? AS UUID), CAST(? AS VARCHAR(255)), CAST(? AS BIGINT))) AS d(user_id, status, delta)
+            ON c.user_id = d.user_id AND c.status = d.status
+            WHEN MATCHED THEN UPDATE SET cnt = c.cnt + d.delta
+            WHEN NOT MATCHED THEN INSERT (user_id, status, cnt) VALUES (d.user_id, d.status, d.delta)
+            """;
+
+    private static final String SET_SQL = """
+            MERGE INTO task_status_count c
+            USING (VALUES (CAST(? AS UUID), CAST(? AS VARCHAR(255)), CAST(? AS BIGINT))) AS d(user_id, status, cnt)
+            ON c.user_id = d.user_id AND c.status = d.status
+            WHEN MATCHED THEN UPDATE SET cnt = d.cnt
+            WHEN NOT MATCHED THEN INSERT (user_id, status, cnt) VALUES (d.user_id, d.status, d.cnt)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskStatusCountDao(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void increment(UUID userId, Status status, long delta) {
+        add(userId, Map.of(status, delta));
+    }
+
+    public void move(UUID userId, Status from, Status to) {
+        if (from != to) {
+            add(userId, Map.of(from, -1L, to, 1L));
+        }
+    }
+
+    // wiersze zawsze w kolejnosci statusow, zeby dwie transakcje nie zakleszczyly sie na licznikach jednego uzytkownika
+    public void add(UUID userId, Map<Status, Long> deltas) {
+        List<Object[]> rows = new ArrayList<>();
+
+        for (Map.Entry<Status, Long> delta : new EnumMap<>(deltas).entrySet()) {
+            if (delta.getValue() != 0) {
+                rows.add(new Object[]{userId, delta.getKey().name(), delta.getValue()});
+            }
+        }
+
+        rows.forEach(row -> merge(ADD_SQL, row));
+    }
+
+    // odczyt po kluczu glownym, bez liczenia zadan
+    public Map<Status, Long> findByUser(UUID userId) {
+        Map<Status, Long> counts = emptyCounts();
+
+        jdbcTemplate.query(
+                "SELECT status, cnt FROM task_status_count WHERE user_id = ?",
+                rs -> {
+                    counts.put(Status.valueOf(rs.getString("status")), rs.getLong("cnt"));
+                },
+                userId
+        );
+
+        return counts;
+    }
+
+    // uzytkownicy, u ktorych liczniki nie zgadzaja sie z zadaniami - jeden przebieg po calej tabeli task
+    public List<UUID> findUsersWithDrift() {
+        String sql = """
+            SELECT DISTINCT user_id FROM (
+                (SELECT user_id, status, COUNT(*) AS cnt FROM task GROUP BY user_id, status
+                 EXCEPT
+                 SELECT user_id, status, cnt FROM task_status_count WHERE cnt <> 0)
+                UNION
+                (SELECT user_id, status, cnt FROM task_status_count WHERE cnt <> 0
+                 EXCEPT
+                 SELECT user_id, status, COUNT(*) AS cnt FROM task GROUP BY user_id, status)
+            ) drift
+        """;
+
+        return jdbcTemplate.queryForList(sql, UUID.class);
+    }
+
+    // blokuje liczniki uzytkownika do konca transakcji, zapisy zadan czekaja az naprawa sie skonczy
+    // SELECT FOR UPDATE nie zablokowalby nic u uzytkownika bez wierszy licznika (np. z data.sql)
+    // dlatego kazdy status dostaje wiersz przez MERGE z delta 0 - ten sam wiersz, ktory zmienia kazdy zapis zadania
+    public void lockByUser(UUID userId) {
+        for (Status status : Status.values()) {
+            merge(ADD_SQL, new Object[]{userId, status.name(), 0L});
+        }
+    }
+
+    public void set(UUID userId, Map<Status, Long> counts) {
+        List<Object[]> rows = new ArrayList<>();
+
+        for (Map.Entry<Status, Long> count : new EnumMap<>(counts).entrySet()) {
+            rows.add(new Object[]{userId, count.getKey().name(), count.getValue()});
+        }
+
+        jdbcTemplate.batchUpdate(SET_SQL, rows);
+    }
+
+    // MERGE, ktory nie znalazl wiersza, czeka na transakcje wstawiajaca ten sam klucz i po jej commicie dostaje blad klucza
+    // drugie wykonanie trafia juz w istniejacy wiersz; H2 wycofuje tylko nieudane polecenie, transakcja trwa dalej
+    private void merge(String sql, Object[] row) {
+        try {
+            jdbcTemplate.update(sql, row);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(sql, row);
+        }
+    }
+
+    private static Map<Status, Long> emptyCounts() {
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Status status : Status.values()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+}
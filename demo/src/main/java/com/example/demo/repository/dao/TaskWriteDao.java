@@ -0,0 +1,65 @@
+package com.example.demo.repository.dao;
+
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.dto.Task.TaskStatusChange;
+import com.example.demo.domain.enums.Status;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+// zapisy pojedynczego zadania, ktore musza znac jego poprzedni status dla task_status_count
+// OLD TABLE oddaje wiersz sprzed zmiany w tym samym poleceniu - bez SELECT ... FOR UPDATE przed zapisem
+@Timed(value = "app.dao", histogram = true)
+@Repository
+public class TaskWriteDao {
+    // DELETE i zmniejszenie licznika jego statusu w jednym poleceniu, wynik 0 gdy zadania nie ma albo jest cudze
+    private static final String DELETE_OWNED_SQL = """
+            MERGE INTO task_status_count c
+            USING (
+                SELECT user_id, status, CAST(-1 AS BIGINT) AS delta
+                FROM OLD TABLE (DELETE FROM task WHERE id = ? AND user_id = ?)
+            ) AS d
+            ON c.user_id = d.user_id AND c.status = d.status
+            WHEN MATCHED THEN UPDATE SET cnt = c.cnt + d.delta
+            WHEN NOT MATCHED THEN INSERT (user_id, status, cnt) VALUES (d.user_id, d.status, d.delta)
+            """;
+
+    private static final String UPDATE_STATUS_OWNED_SQL = """
+            SELECT id, title, description, status, due_date, category_id, user_id, created_at
+            FROM OLD TABLE (UPDATE task SET status = ?, updated_at = ? WHERE id = ? AND user_id = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskWriteDao(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int deleteOwned(UUID id, UUID userId) {
+        return jdbcTemplate.update(DELETE_OWNED_SQL, id, userId);
+    }
+
+    // warunek na user_id pilnuje zeby nie zmienic cudzego zadania, pusty wynik gdy wiersza nie bylo
+    public Optional<TaskStatusChange> updateStatusOwned(UUID id, UUID userId, Status status, LocalDateTime updatedAt) {
+        List<TaskStatusChange> changes = jdbcTemplate.query(UPDATE_STATUS_OWNED_SQL, (rs, rowNum) -> {
+            TaskResponseDTO task = new TaskResponseDTO();
+            task.setId(rs.getObject("id", UUID.class));
+            task.setTitle(rs.getString("title"));
+            task.setDescription(rs.getString("description"));
+            task.setStatus(status);
+            task.setDueDate(rs.getObject("due_date", LocalDateTime.class));
+            task.setUserId(rs.getObject("user_id", UUID.class));
+            task.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+            task.setUpdatedAt(updatedAt);
+
+            return new TaskStatusChange(Status.valueOf(rs.getString("status")), rs.getObject("category_id", UUID.class), task);
+        }, status.name(), updatedAt, id, userId);
+
+        return changes.stream().findFirst();
+    }
+}
@@ -1,21 +1,42 @@
 package com.example.demo.security;
 
+import com.example.demo.domain.exceptions.PasswordHashingBusyException;
+import com.example.demo.security.cache.TtlUserCache;
+import com.example.demo.security.password.BcryptStrength;
+import com.example.demo.security.password.BoundedPasswordEncoder;
 import com.example.demo.security.service.CustomUserDetailsService;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
 
     private final CustomUserDetailsService userDetailsService;
 
@@ -24,7 +45,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, UserCache userCache, PasswordEncoder passwordEncoder) throws Exception {
 
         http.csrf(AbstractHttpConfigurer::disable);
 
@@ -55,6 +76,12 @@ public class SecurityConfig {
                         "/h2-console/**"
                 ).permitAll()
 
+                // scrape prometheusa i health check bez logowania - na produkcji /actuator zostaje w sieci wewnetrznej
+                .requestMatchers(
+                        "/actuator/health",
+                        "/actuator/prometheus"
+                ).permitAll()
+
                 // WSZYSTKIE endpointy API wymagają logowania
                 .requestMatchers("/api/**").authenticated()
 
@@ -62,12 +89,24 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
         );
 
-        http.userDetailsService(userDetailsService);
+        // wlasny manager bez rodzica - globalny manager z drugim DaoAuthenticationProvider liczylby hash zlego hasla drugi raz
+        ProviderManager providerManager = new ProviderManager(authenticationProvider(userCache, passwordEncoder));
+
+        // odmowa puli hashowania nie jest AuthenticationException, wiec provider nie ponawia sprawdzenia hasla z bazy
+        // dopiero tutaj zamieniana na wyjatek, ktory filtr logowania przekaze do failure handlera
+        http.authenticationManager(authentication -> {
+            try {
+                return providerManager.authenticate(authentication);
+            } catch (PasswordHashingBusyException e) {
+                throw new InternalAuthenticationServiceException(e.getMessage(), e);
+            }
+        });
 
         http.formLogin(login -> login
                 .loginPage("/login")               // GET /login -> strona logowania
                 .loginProcessingUrl("/login")      // POST /login -> obsługa logowania
                 .defaultSuccessUrl("/tasks", true) // po logowaniu idzie na /tasks
+                .failureHandler(loginFailureHandler())
                 .permitAll()
         );
 
@@ -99,8 +138,69 @@ public class SecurityConfig {
         };
     }
 
+    // przeciazona pula hashowania - 503 z Retry-After zamiast przekierowania jak przy zlym hasle
+    private static AuthenticationFailureHandler loginFailureHandler() {
+        SimpleUrlAuthenticationFailureHandler badCredentials = new SimpleUrlAuthenticationFailureHandler("/login?error");
+
+        return (request, response, exception) -> {
+            if (exception.getCause() instanceof PasswordHashingBusyException) {
+                response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.setContentType("text/plain");
+                response.getWriter().write(exception.getMessage());
+                return;
+            }
+
+            badCredentials.onAuthenticationFailure(request, response, exception);
+        };
+    }
+
+    // cache sprawdzany przed zapytaniem do bazy, przy zlym hasle provider i tak doczytuje uzytkownika ponownie
+    // provider nie jest beanem, wiec Spring nie ostrzega o globalnym AuthenticationManager
+    private DaoAuthenticationProvider authenticationProvider(UserCache userCache, PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserCache(userCache);
+
+        // hash ze starym kosztem przepisywany przy udanym logowaniu; cache dostaje nowy, inaczej kolejne logowania
+        // z cache widzialyby stary hash i przepisywaly go ponownie
+        provider.setUserDetailsPasswordService((user, newPassword) -> {
+            UserDetails updated = userDetailsService.updatePassword(user, newPassword);
+            userCache.putUserInCache(updated);
+            return updated;
+        });
+
+        return provider;
+    }
+
+    @Bean
+    public UserCache userCache(
+            @Value("${app.security.user-cache.max-size:1000}") int maxSize,
+            @Value("${app.security.user-cache.ttl:10m}") Duration ttl
+    ) {
+        return new TtlUserCache(maxSize, ttl, Clock.systemUTC());
+    }
+
+    // koszt zawsze z konfiguracji, zeby wszystkie wezly i restarty hashowaly tak samo; hashe bez prefiksu {id} sa starym bcryptem
+    // calibrate=true tylko mierzy koszt pasujacy do budzetu na tej maszynie i wypisuje go jako podpowiedz
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password.bcrypt-strength:12}") int strength,
+            @Value("${app.security.password.calibrate:false}") boolean calibrate,
+            @Value("${app.security.password.hash-budget:250ms}") Duration hashBudget,
+            @Value("${app.security.password.threads:2}") int threads,
+            @Value("${app.security.password.queue-capacity:16}") int queueCapacity,
+            @Value("${app.security.password.wait-timeout:2s}") Duration waitTimeout
+    ) {
+        log.info("Using bcrypt strength {}", strength);
+        if (calibrate) {
+            log.info("Bcrypt strength {} fits the hash budget of {} on this machine", BcryptStrength.calibrate(hashBudget), hashBudget);
+        }
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegating, threads, queueCapacity, waitTimeout);
     }
 }
\ No newline at end of file
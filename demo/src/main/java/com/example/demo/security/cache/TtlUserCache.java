@@ -0,0 +1,65 @@
+package com.example.demo.security.cache;
+
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// ograniczony cache LRU z czasem zycia wpisu, uzywany przez DaoAuthenticationProvider przy logowaniu
+public class TtlUserCache implements UserCache {
+    private final int maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+
+    // accessOrder = true, wiec najdawniej uzywany wpis jest pierwszy do usuniecia
+    private final LinkedHashMap<String, Entry> entries;
+
+    public TtlUserCache(int maxSize, Duration ttl, Clock clock) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > TtlUserCache.this.maxSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized UserDetails getUserFromCache(String username) {
+        Entry entry = entries.get(username);
+
+        if (entry == null) {
+            return null;
+        }
+
+        if (!clock.instant().isBefore(entry.expiresAt())) {
+            entries.remove(username);
+            return null;
+        }
+
+        return entry.user();
+    }
+
+    @Override
+    public synchronized void putUserInCache(UserDetails user) {
+        entries.put(user.getUsername(), new Entry(user, clock.instant().plus(ttl)));
+    }
+
+    @Override
+    public synchronized void removeUserFromCache(String username) {
+        entries.remove(username);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(UserDetails user, Instant expiresAt) {
+    }
+}
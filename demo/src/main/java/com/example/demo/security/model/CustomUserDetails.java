@@ -1,35 +1,40 @@
 package com.example.demo.security.model;
 
-import com.example.demo.domain.entity.User;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
-public class CustomUserDetails implements UserDetails {
-    private final User user;
+// trzyma tylko to co potrzebne do logowania - encja User (z leniwa lista zadan) nie trafia do sesji
+public final class CustomUserDetails implements UserDetails {
+    private final UUID id;
+    private final String username;
+    private final String password;
 
-    public CustomUserDetails(User user) {
-        this.user = user;
+    public CustomUserDetails(UUID id, String username, String password) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
     }
 
     public UUID getId() {
-        return user.getId();
+        return id;
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword(); // hasło z bazy
+        return password; // hash hasła z bazy
     }
 
     @Override
     public String getUsername() {
-        return user.getUsername(); // login z bazy
+        return username; // login z bazy
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return null; // no roles
+        return List.of(); // no roles
     }
 }
@@ -0,0 +1,52 @@
+package com.example.demo.security.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// dobor kosztu bcrypta do budzetu czasu jednego hasha na tej maszynie - kazdy kolejny koszt to dwa razy dluzej
+// wynik tylko jako podpowiedz w logu: koszt zalezny od obciazenia przy starcie roznilby sie miedzy wezlami i restartami
+public final class BcryptStrength {
+    // nizej nie schodzimy nawet na wolnej maszynie, wyzej login trwalby sekundy
+    public static final int MIN = 10;
+    public static final int MAX = 14;
+
+    private static final int RUNS = 5;
+
+    private BcryptStrength() {
+    }
+
+    public static int calibrate(Duration budget) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN);
+
+        // pierwszy pomiar tylko rozgrzewa JIT, mediana kilku kolejnych nie reaguje na pojedyncze przestoje
+        encoder.encode("calibration");
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            times[i] = Math.max(1, System.nanoTime() - start);
+        }
+
+        return forBudget(budget.toNanos(), median(times));
+    }
+
+    public static long median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    public static int forBudget(long budgetNanos, long minStrengthNanos) {
+        int strength = MIN;
+        long time = minStrengthNanos;
+
+        while (strength < MAX && time * 2 <= budgetNanos) {
+            time *= 2;
+            strength++;
+        }
+
+        return strength;
+    }
+}
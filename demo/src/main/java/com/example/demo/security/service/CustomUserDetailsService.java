@@ -1,15 +1,16 @@
 package com.example.demo.security.service;
 
-import com.example.demo.domain.entity.User;
 import com.example.demo.repository.UserRepository;
 import com.example.demo.security.model.CustomUserDetails;
+import jakarta.transaction.Transactional;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
 
     public CustomUserDetailsService(UserRepository userRepository) {
@@ -18,9 +19,17 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return userRepository.findCredentialsByUsername(username).orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
+
+    // provider wola to po udanym logowaniu, gdy zapisany hash ma starszy format albo nizszy koszt
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
 
-        return new CustomUserDetails(user);
+        CustomUserDetails details = (CustomUserDetails) user;
+        return new CustomUserDetails(details.getId(), details.getUsername(), newPassword);
     }
 
 }
@@ -0,0 +1,39 @@
+package com.example.demo.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// zmiany stanu w pamieci (wersje ETag, przypomnienia, indeks, cache) dopiero po commicie
+// wycofana transakcja nie zostawia po sobie niczego, a bez transakcji zmiana idzie od razu
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    // po zakonczeniu transakcji niezaleznie od wyniku - do zwalniania rezerwacji zalozonych w jej trakcie
+    public static void runAfterCompletion(Runnable release) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.dto.Category.CategoryDeletionJobDTO;
+import com.example.demo.domain.enums.CategoryDeletionStatus;
+import com.example.demo.domain.exceptions.CategoryDeletionQueueFullException;
+import com.example.demo.domain.exceptions.NotFoundException;
+import com.example.demo.repository.dao.CategoryDao;
+import com.example.demo.service.job.BackgroundJob;
+import com.example.demo.service.job.BackgroundJobs;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+// usuwanie kategorii paczkami: zadania przepinane po batchSize wierszy, kazda paczka we wlasnej transakcji
+// blokady trzymane tylko przez jedna paczke, wiec zapisy innych zadan nie czekaja na cale usuwanie
+// wiersz kategorii znika dopiero gdy nic go nie wskazuje
+@Service
+public class CategoryDeletionService {
+    private static final Logger log = LoggerFactory.getLogger(CategoryDeletionService.class);
+
+    // zapis, ktory sprawdzil kategorie tuz przed rozpoczeciem usuwania, moze jeszcze do niej dopisac zadanie
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final CategoryService categoryService;
+    private final CategoryDao categoryDao;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceVersionService resourceVersionService;
+    private final int batchSize;
+    private final BackgroundJobs<DeletionJob> jobs;
+
+    @Autowired
+    public CategoryDeletionService(
+            CategoryService categoryService,
+            CategoryDao categoryDao,
+            TransactionTemplate transactionTemplate,
+            ResourceVersionService resourceVersionService,
+            @Value("${app.category-delete.batch-size:500}") int batchSize,
+            @Value("${app.category-delete.queue-capacity:10}") int queueCapacity,
+            @Value("${app.category-delete.ttl:PT1H}") Duration ttl
+    ) {
+        this.categoryService = categoryService;
+        this.categoryDao = categoryDao;
+        this.transactionTemplate = transactionTemplate;
+        this.resourceVersionService = resourceVersionService;
+        this.batchSize = batchSize;
+        // jeden watek - usuwania ida po kolei i nie rywalizuja ze soba o wiersze task
+        this.jobs = new BackgroundJobs<>("category-delete", 1, queueCapacity, ttl);
+    }
+
+    // paczki w biezacym watku - odpowiedz dopiero po usunieciu kategorii
+    public CategoryDeletionJobDTO deleteInBatches(UUID categoryId, UUID reassignTo) {
+        categoryService.beginDeletion(categoryId, reassignTo);
+        DeletionJob job = new DeletionJob(categoryId, reassignTo, categoryDao.countTasks(categoryId));
+
+        boolean deleted = false;
+        try {
+            process(job);
+            deleted = true;
+        } finally {
+            categoryService.finishDeletion(categoryId, deleted);
+        }
+
+        return mapToDTO(job);
+    }
+
+    // ponowne zlecenie tej samej kategorii zwraca trwajacy job
+    public synchronized CategoryDeletionJobDTO startDeletion(UUID categoryId, UUID reassignTo) {
+        DeletionJob active = jobs.findActive(job -> job.categoryId.equals(categoryId)).orElse(null);
+        if (active != null) {
+            return mapToDTO(active);
+        }
+
+        categoryService.beginDeletion(categoryId, reassignTo);
+        DeletionJob job = new DeletionJob(categoryId, reassignTo, categoryDao.countTasks(categoryId));
+
+        if (!jobs.submit(job, this::run)) {
+            categoryService.finishDeletion(categoryId, false);
+            throw new CategoryDeletionQueueFullException("Too many category deletions in progress, try again later");
+        }
+
+        return mapToDTO(job);
+    }
+
+    public CategoryDeletionJobDTO getJob(UUID id) {
+        return jobs.find(id)
+                .map(this::mapToDTO)
+                .orElseThrow(() -> new NotFoundException("Category deletion not found"));
+    }
+
+    @Scheduled(fixedDelayString = "${app.category-delete.cleanup-interval:PT5M}")
+    public int removeExpired() {
+        return jobs.removeExpired().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdown();
+    }
+
+    private void run(DeletionJob job) {
+        boolean deleted = false;
+        try {
+            process(job);
+            deleted = true;
+        } catch (RuntimeException e) {
+            log.warn("Deleting category {} failed after {} tasks", job.categoryId, job.tasksMoved, e);
+            job.fail("Category deletion failed");
+            job.status = CategoryDeletionStatus.FAILED;
+        } finally {
+            categoryService.finishDeletion(job.categoryId, deleted);
+        }
+    }
+
+    private void process(DeletionJob job) {
+        job.status = CategoryDeletionStatus.RUNNING;
+
+        for (int attempt = 1; ; attempt++) {
+            int moved;
+            do {
+                moved = transactionTemplate.execute(status -> categoryDao.moveTasks(job.categoryId, job.reassignTo, batchSize));
+                if (moved > 0) {
+                    job.tasksMoved += moved;
+                    job.batches++;
+                    // lista zadan pokazuje kategorie, wiec po kazdej paczce ETagi zadan musza sie zmienic
+                    resourceVersionService.categoriesChanged();
+                }
+            } while (moved == batchSize);
+
+            Integer deleted = transactionTemplate.execute(status -> categoryDao.deleteIfUnused(job.categoryId));
+            if (deleted != null && deleted > 0) {
+                break;
+            }
+            if (attempt == MAX_ATTEMPTS) {
+                throw new IllegalStateException("Category " + job.categoryId + " is still referenced by tasks");
+            }
+        }
+
+        job.finish();
+        job.status = CategoryDeletionStatus.DONE;
+    }
+
+    private CategoryDeletionJobDTO mapToDTO(DeletionJob job) {
+        CategoryDeletionJobDTO dto = new CategoryDeletionJobDTO();
+        dto.setId(job.getId());
+        dto.setCategoryId(job.categoryId);
+        dto.setReassignTo(job.reassignTo);
+        dto.setStatus(job.status);
+        dto.setTasksMoved(job.tasksMoved);
+        dto.setTotalTasks(job.totalTasks);
+        dto.setBatches(job.batches);
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setError(job.getError());
+        dto.setProgress(BackgroundJobs.progress(job.status == CategoryDeletionStatus.DONE, job.tasksMoved, job.totalTasks));
+
+        if (job.isFinished()) {
+            dto.setExpiresAt(jobs.expiresAt(job));
+        }
+
+        return dto;
+    }
+
+    // pola zmienia watek usuwania, a czytaja watki zapytan o status
+    private static class DeletionJob extends BackgroundJob {
+        private final UUID categoryId;
+        private final UUID reassignTo;
+        private final long totalTasks;
+        private volatile CategoryDeletionStatus status = CategoryDeletionStatus.QUEUED;
+        private volatile long tasksMoved;
+        private volatile int batches;
+
+        private DeletionJob(UUID categoryId, UUID reassignTo, long totalTasks) {
+            this.categoryId = categoryId;
+            this.reassignTo = reassignTo;
+            this.totalTasks = totalTasks;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return status == CategoryDeletionStatus.DONE || status == CategoryDeletionStatus.FAILED;
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.example.demo.service;
 import com.example.demo.domain.dto.Category.CategoryDTO;
 import com.example.demo.domain.dto.Category.CategoryReceiveDTO;
 import com.example.demo.domain.entity.Category;
+import com.example.demo.domain.exceptions.CategoryDeletionConflictException;
 import com.example.demo.domain.exceptions.NotFoundException;
+import com.example.demo.domain.id.TimeOrderedUuid;
 import com.example.demo.domain.mapper.CategoryMapper;
 import com.example.demo.repository.CategoryRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.dao.CategoryDao;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -15,10 +18,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+@Timed(value = "app.service", histogram = true)
 @Validated
 @Service
 public class CategoryService {
@@ -26,26 +35,89 @@ public class CategoryService {
     private final CategoryMapper categoryMapper;
     private final TaskRepository taskRepository;
     private final CategoryDao categoryDao;
+    private final ResourceVersionService resourceVersionService;
+
+    // id -> kategoria, niezmienna kopia podmieniana przy kazdym zapisie; null dopoki nikt nie poprosi o kategorie
+    private volatile Map<UUID, CategoryDTO> cache;
+    // zwiekszany przy kazdym zapisie, zeby nie wstawic do cache listy przeczytanej przed zmiana
+    private final AtomicLong cacheVersion = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+    // kategorie usuwane paczkami: id -> kategoria docelowa (id tej samej kategorii gdy zadania zostaja bez kategorii)
+    private final Map<UUID, UUID> deletions = new ConcurrentHashMap<>();
+    // to samo dla usuwania w jednej transakcji - trwa do jej konca, lista kategorii pokazuje je az do commitu
+    private final Map<UUID, UUID> immediateDeletions = new ConcurrentHashMap<>();
 
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, TaskRepository taskRepository, CategoryDao categoryDao) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper, TaskRepository taskRepository, CategoryDao categoryDao, ResourceVersionService resourceVersionService) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
         this.taskRepository = taskRepository;
         this.categoryDao = categoryDao;
+        this.resourceVersionService = resourceVersionService;
     }
 
     public List<CategoryDTO> getCategories() {
-        return categoryDao.findAll().stream().map(categoryMapper::mapToDTO).collect(Collectors.toList());
+        Map<UUID, CategoryDTO> current = cache;
+
+        if (current != null) {
+            cacheHits.incrementAndGet();
+        } else {
+            cacheMisses.incrementAndGet();
+            current = loadCache();
+        }
+
+        // usuwanej kategorii nie pokazujemy juz do wyboru
+        if (deletions.isEmpty()) {
+            return List.copyOf(current.values());
+        }
+        return current.values().stream()
+                .filter(category -> !deletions.containsKey(category.getId()))
+                .toList();
     }
 
     public CategoryDTO getCategoryById(@NotNull UUID id) {
+        Map<UUID, CategoryDTO> current = cache != null ? cache : loadCache();
+        CategoryDTO cached = current.get(id);
+
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return cached;
+        }
+
+        // kategoria mogla trafic do bazy z pominieciem serwisu, wiec przy braku sprawdzamy baze
+        cacheMisses.incrementAndGet();
+        long version = cacheVersion.get();
         Category category = this.categoryRepository.findById(id).orElseThrow(() -> new NotFoundException("Chosen category not found"));
-        return categoryMapper.mapToDTO(category);
+        CategoryDTO dto = categoryMapper.mapToDTO(category);
+        cacheLoaded(version, id, dto);
+
+        return dto;
+    }
+
+    // do przypisania zadania - kategoria w trakcie usuwania juz nie przyjmuje nowych zadan
+    public CategoryDTO getAssignableCategory(@NotNull UUID id) {
+        if (deletions.containsKey(id)) {
+            throw new NotFoundException("Chosen category not found");
+        }
+        return getCategoryById(id);
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public int getCacheSize() {
+        Map<UUID, CategoryDTO> current = cache;
+        return current != null ? current.size() : 0;
     }
 
     public CategoryDTO addCategory(@Valid CategoryReceiveDTO categoryDTO) {
-        UUID id = UUID.randomUUID();
+        UUID id = TimeOrderedUuid.next();
         categoryDao.insert(id, categoryDTO.getName(), categoryDTO.getColor());
 
         CategoryDTO newCategory = new CategoryDTO();
@@ -53,6 +125,9 @@ public class CategoryService {
         newCategory.setName(categoryDTO.getName());
         newCategory.setColor(categoryDTO.getColor());
 
+        updateCache(id, newCategory);
+        resourceVersionService.categoriesChanged();
+
         return newCategory;
     }
 
@@ -69,17 +144,120 @@ public class CategoryService {
         updatedCategory.setName(categoryDTO.getName());
         updatedCategory.setColor(categoryDTO.getColor());
 
+        updateCache(id, updatedCategory);
+        resourceVersionService.categoriesChanged();
+
         return updatedCategory;
     }
 
+    // reassignTo = null zostawia zadania bez kategorii
     @Transactional
-    public void deleteCategory(@NotNull UUID id) {
-        taskRepository.clearCategory(id);
+    public void deleteCategory(@NotNull UUID id, UUID reassignTo) {
+        // ta sama rezerwacja co przy usuwaniu paczkami, trzymana do konca transakcji
+        // do commitu nikt nie zacznie przepinac zadan na te kategorie ani jej usuwac
+        reserveDeletion(immediateDeletions, id, reassignTo);
+        AfterCommit.runAfterCompletion(() -> immediateDeletions.remove(id));
+
+        if (reassignTo == null) {
+            taskRepository.clearCategory(id);
+        } else {
+            categoryDao.moveAllTasks(id, reassignTo);
+        }
 
         int deleted = categoryDao.delete(id);
 
         if (deleted == 0) {
             throw new NotFoundException("Category not found");
         }
+
+        // wiersz znika dla innych dopiero po commicie - wczesniejsze usuniecie z cache moglby cofnac rownolegly odczyt z bazy
+        AfterCommit.run(() -> updateCache(id, null));
+        resourceVersionService.categoriesChanged();
+    }
+
+    // poczatek usuwania paczkami: od tej chwili kategoria nie przyjmuje nowych zadan i nie moze byc celem innego usuwania
+    public synchronized void beginDeletion(@NotNull UUID id, UUID reassignTo) {
+        getCategoryById(id);
+        reserveDeletion(deletions, id, reassignTo);
+        resourceVersionService.categoriesChanged();
+    }
+
+    // deleted = false gdy usuwanie sie nie udalo - kategoria wraca do wyboru, przepiete zadania zostaja przepiete
+    public synchronized void finishDeletion(@NotNull UUID id, boolean deleted) {
+        deletions.remove(id);
+
+        if (deleted) {
+            updateCache(id, null);
+        }
+        resourceVersionService.categoriesChanged();
+    }
+
+    // kategoria nie moze byc usuwana dwa razy ani usunieta, gdy inne usuwanie przepina na nia zadania
+    private synchronized void reserveDeletion(Map<UUID, UUID> reservations, UUID id, UUID reassignTo) {
+        if (deletions.containsKey(id) || immediateDeletions.containsKey(id)) {
+            throw new CategoryDeletionConflictException("Category is already being deleted");
+        }
+        if (deletions.containsValue(id) || immediateDeletions.containsValue(id)) {
+            throw new CategoryDeletionConflictException("Category receives tasks of another deleted category");
+        }
+        if (reassignTo != null) {
+            checkReassignTarget(id, reassignTo);
+        }
+
+        reservations.put(id, reassignTo != null ? reassignTo : id);
+    }
+
+    private void checkReassignTarget(UUID id, UUID reassignTo) {
+        if (Objects.equals(id, reassignTo)) {
+            throw new CategoryDeletionConflictException("Cannot move tasks to the deleted category");
+        }
+        if (immediateDeletions.containsKey(reassignTo)) {
+            throw new CategoryDeletionConflictException("Target category is being deleted");
+        }
+        getAssignableCategory(reassignTo);
+    }
+
+    private Map<UUID, CategoryDTO> loadCache() {
+        long version = cacheVersion.get();
+
+        Map<UUID, CategoryDTO> loaded = new LinkedHashMap<>();
+        for (Category category : categoryDao.findAll()) {
+            loaded.put(category.getId(), categoryMapper.mapToDTO(category));
+        }
+        Map<UUID, CategoryDTO> snapshot = Collections.unmodifiableMap(loaded);
+
+        synchronized (this) {
+            // w miedzyczasie ktos zapisal kategorie - ta lista moze byc nieaktualna, nastepny odczyt zaladuje ponownie
+            if (cacheVersion.get() == version) {
+                cache = snapshot;
+            }
+        }
+
+        return snapshot;
+    }
+
+    // odczyt z bazy wstawiamy tylko gdy w trakcie nikt nie zmienil kategorii - inaczej moglby wrocic usuniety wiersz
+    private synchronized void cacheLoaded(long version, UUID id, CategoryDTO category) {
+        if (cacheVersion.get() == version) {
+            updateCache(id, category);
+        }
+    }
+
+    // null usuwa kategorie z cache
+    private synchronized void updateCache(UUID id, CategoryDTO category) {
+        cacheVersion.incrementAndGet();
+
+        Map<UUID, CategoryDTO> current = cache;
+        if (current == null) {
+            return;
+        }
+
+        Map<UUID, CategoryDTO> updated = new LinkedHashMap<>(current);
+        if (category != null) {
+            updated.put(id, category);
+        } else {
+            updated.remove(id);
+        }
+        cache = Collections.unmodifiableMap(updated);
     }
 }
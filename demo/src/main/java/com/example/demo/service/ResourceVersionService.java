@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// wersje danych do ETag: licznik zmian zadan kazdego uzytkownika i jeden licznik katalogu kategorii
+// trzymane w pamieci jak baza H2, po restarcie nowy bootId uniewaznia wszystkie stare ETagi
+@Service
+public class ResourceVersionService {
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<UUID, AtomicLong> taskVersions = new ConcurrentHashMap<>();
+    private final AtomicLong categoryVersion = new AtomicLong();
+
+    private final UserService userService;
+
+    @Autowired
+    public ResourceVersionService(UserService userService) {
+        this.userService = userService;
+    }
+
+    // lista zadan pokazuje tez nazwy i kolory kategorii, wiec zalezy od obu wersji
+    public String currentTasksEtag() {
+        UUID userId = userService.getLoggedUserId();
+        return etag("tasks", userId + "-" + taskVersion(userId) + "-" + categoryVersion.get());
+    }
+
+    public String currentDashboardEtag() {
+        UUID userId = userService.getLoggedUserId();
+        return etag("dashboard", userId + "-" + taskVersion(userId));
+    }
+
+    public String categoriesEtag() {
+        return etag("categories", String.valueOf(categoryVersion.get()));
+    }
+
+    // wersja rosnie dopiero po commicie - inaczej odczyt w trakcie transakcji dostalby nowy ETag do starych danych
+    public void tasksChanged(UUID userId) {
+        AfterCommit.run(() -> taskVersions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet());
+    }
+
+    public void categoriesChanged() {
+        AfterCommit.run(categoryVersion::incrementAndGet);
+    }
+
+    private long taskVersion(UUID userId) {
+        AtomicLong version = taskVersions.get(userId);
+        return version != null ? version.get() : 0;
+    }
+
+    private String etag(String resource, String version) {
+        return "W/\"" + resource + "-" + bootId + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.domain.dto.Task.TaskBatchItemResult;
+import com.example.demo.domain.dto.Task.TaskBatchResult;
+import com.example.demo.domain.dto.Task.TaskBatchStatusDTO;
+import com.example.demo.domain.dto.Task.TaskReceiveDTO;
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.entity.Task;
+import com.example.demo.domain.entity.User;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.exceptions.BatchTooLargeException;
+import com.example.demo.domain.exceptions.NotFoundException;
+import com.example.demo.domain.mapper.TaskMapper;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.service.reminder.DeadlineReminderScheduler;
+import com.example.demo.service.search.TaskSearchIndex;
+import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Validated
+@Service
+public class TaskBatchService {
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final TaskMapper taskMapper;
+    private final UserService userService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final CategoryService categoryService;
+    private final Validator validator;
+    private final TaskStatusCountDao taskStatusCountDao;
+    private final ResourceVersionService resourceVersionService;
+    private final DeadlineReminderScheduler deadlineReminderScheduler;
+
+    @Autowired
+    public TaskBatchService(TaskRepository taskRepository, UserRepository userRepository, CategoryRepository categoryRepository, TaskMapper taskMapper, UserService userService, TaskSearchIndex taskSearchIndex, CategoryService categoryService, Validator validator, TaskStatusCountDao taskStatusCountDao, ResourceVersionService resourceVersionService, DeadlineReminderScheduler deadlineReminderScheduler) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.taskMapper = taskMapper;
+        this.userService = userService;
+        this.taskSearchIndex = taskSearchIndex;
+        this.categoryService = categoryService;
+        this.validator = validator;
+        this.taskStatusCountDao = taskStatusCountDao;
+        this.resourceVersionService = resourceVersionService;
+        this.deadlineReminderScheduler = deadlineReminderScheduler;
+    }
+
+    // bledne elementy nie przerywaja paczki - dostaja swoj kod w wyniku, reszta zapisuje sie w jednej transakcji
+    @Transactional
+    public TaskBatchResult createTasks(@NotNull List<TaskReceiveDTO> tasks) {
+        checkSize(tasks);
+
+        UUID userId = userService.getLoggedUserId();
+        User user = userRepository.getReferenceById(userId);
+
+        TaskBatchItemResult[] results = new TaskBatchItemResult[tasks.size()];
+        Map<UUID, CategoryDTO> categories = new HashMap<>();
+        Set<UUID> missingCategories = new HashSet<>();
+        List<Task> toSave = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        List<CategoryDTO> responseCategories = new ArrayList<>();
+
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskReceiveDTO dto = tasks.get(i);
+
+            String error = validate(dto);
+            if (error != null) {
+                results[i] = TaskBatchItemResult.failure(i, null, HttpStatus.BAD_REQUEST.value(), error);
+                continue;
+            }
+
+            CategoryDTO categoryDTO = null;
+            if (dto.getCategoryId() != null) {
+                categoryDTO = resolveCategory(dto.getCategoryId(), categories, missingCategories);
+                if (categoryDTO == null) {
+                    results[i] = TaskBatchItemResult.failure(i, null, HttpStatus.NOT_FOUND.value(), "Chosen category not found");
+                    continue;
+                }
+            }
+
+            Task task = new Task();
+            task.setTitle(dto.getTitle());
+            task.setDescription(dto.getDescription());
+            task.setStatus(dto.getStatus());
+            task.setDueDate(dto.getDueDate());
+            task.setCategory(categoryDTO != null ? categoryRepository.getReferenceById(categoryDTO.getId()) : null);
+            task.setUser(user);
+
+            toSave.add(task);
+            positions.add(i);
+            responseCategories.add(categoryDTO);
+        }
+
+        // id generowane po stronie aplikacji, wiec INSERT-y ida paczkami po hibernate.jdbc.batch_size
+        taskRepository.saveAll(toSave);
+        taskRepository.flush();
+        taskStatusCountDao.add(userId, countByStatus(toSave));
+        if (!toSave.isEmpty()) {
+            resourceVersionService.tasksChanged(userId);
+        }
+
+        for (int j = 0; j < toSave.size(); j++) {
+            Task task = toSave.get(j);
+            taskSearchIndex.index(userId, task.getId(), task.getTitle(), task.getDescription());
+            deadlineReminderScheduler.schedule(task.getId(), userId, task.getTitle(), task.getDueDate(), task.getStatus());
+
+            TaskResponseDTO response = taskMapper.mapToResponseDTOWithoutCategory(task);
+            response.setCategory(responseCategories.get(j));
+
+            int index = positions.get(j);
+            results[index] = TaskBatchItemResult.success(index, task.getId(), HttpStatus.CREATED.value(), response);
+        }
+
+        return TaskBatchResult.of(List.of(results));
+    }
+
+    @Transactional
+    public TaskBatchResult updateStatuses(@NotNull List<TaskBatchStatusDTO> changes) {
+        checkSize(changes);
+
+        UUID userId = userService.getLoggedUserId();
+
+        Set<UUID> ids = changes.stream()
+                .filter(change -> change != null && change.getId() != null)
+                .map(TaskBatchStatusDTO::getId)
+                .collect(Collectors.toSet());
+
+        // jeden SELECT dla calej paczki, zmiany wychodza przy flush jako wsadowe UPDATE
+        Map<UUID, Task> owned = ids.isEmpty() ? Map.of() : taskRepository.findOwnedForUpdateIn(ids, userId).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Map<UUID, Status> previous = owned.values().stream()
+                .collect(Collectors.toMap(Task::getId, Task::getStatus));
+
+        TaskBatchItemResult[] results = new TaskBatchItemResult[changes.size()];
+        List<Integer> updated = new ArrayList<>();
+
+        for (int i = 0; i < changes.size(); i++) {
+            TaskBatchStatusDTO change = changes.get(i);
+
+            String error = validate(change);
+            if (error != null) {
+                results[i] = TaskBatchItemResult.failure(i, change != null ? change.getId() : null, HttpStatus.BAD_REQUEST.value(), error);
+                continue;
+            }
+
+            Task task = owned.get(change.getId());
+            if (task == null) {
+                results[i] = TaskBatchItemResult.failure(i, change.getId(), HttpStatus.NOT_FOUND.value(), "Chosen task not found");
+                continue;
+            }
+
+            // powtorzone id - wygrywa ostatnia zmiana
+            task.setStatus(change.getStatus());
+            updated.add(i);
+        }
+
+        taskRepository.flush();
+
+        // liczniki zmieniaja sie o roznice miedzy statusem sprzed paczki a koncowym
+        Map<Status, Long> deltas = new EnumMap<>(Status.class);
+        for (Task task : owned.values()) {
+            deltas.merge(previous.get(task.getId()), -1L, Long::sum);
+            deltas.merge(task.getStatus(), 1L, Long::sum);
+        }
+        taskStatusCountDao.add(userId, deltas);
+        if (!updated.isEmpty()) {
+            resourceVersionService.tasksChanged(userId);
+        }
+        for (Task task : owned.values()) {
+            deadlineReminderScheduler.schedule(task.getId(), userId, task.getTitle(), task.getDueDate(), task.getStatus());
+        }
+
+        Map<UUID, CategoryDTO> categories = new HashMap<>();
+        Set<UUID> missingCategories = new HashSet<>();
+
+        for (int i : updated) {
+            Task task = owned.get(changes.get(i).getId());
+
+            // kategoria z cache CategoryService zamiast doczytywania jej dla kazdego zadania
+            TaskResponseDTO response = taskMapper.mapToResponseDTOWithoutCategory(task);
+            if (task.getCategory() != null) {
+                response.setCategory(resolveCategory(task.getCategory().getId(), categories, missingCategories));
+            }
+
+            results[i] = TaskBatchItemResult.success(i, task.getId(), HttpStatus.OK.value(), response);
+        }
+
+        return TaskBatchResult.of(List.of(results));
+    }
+
+    @Transactional
+    public TaskBatchResult deleteTasks(@NotNull List<UUID> ids) {
+        checkSize(ids);
+
+        UUID userId = userService.getLoggedUserId();
+
+        Set<UUID> requested = ids.stream().filter(id -> id != null).collect(Collectors.toCollection(LinkedHashSet::new));
+        List<Task> ownedTasks = requested.isEmpty() ? List.of() : taskRepository.findOwnedForUpdateIn(requested, userId);
+        Set<UUID> owned = ownedTasks.stream().map(Task::getId).collect(Collectors.toSet());
+
+        if (!owned.isEmpty()) {
+            taskRepository.deleteOwnedIn(owned, userId);
+
+            Map<Status, Long> deltas = countByStatus(ownedTasks);
+            deltas.replaceAll((status, count) -> -count);
+            taskStatusCountDao.add(userId, deltas);
+            resourceVersionService.tasksChanged(userId);
+            deadlineReminderScheduler.cancelAll(owned);
+        }
+
+        List<TaskBatchItemResult> results = new ArrayList<>(ids.size());
+        Set<UUID> deleted = new HashSet<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+
+            if (id == null) {
+                results.add(TaskBatchItemResult.failure(i, null, HttpStatus.BAD_REQUEST.value(), "Task id must not be null"));
+            } else if (owned.contains(id) && deleted.add(id)) {
+                taskSearchIndex.remove(userId, id);
+                results.add(TaskBatchItemResult.success(i, id, HttpStatus.NO_CONTENT.value(), null));
+            } else {
+                results.add(TaskBatchItemResult.failure(i, id, HttpStatus.NOT_FOUND.value(), "Chosen task not found"));
+            }
+        }
+
+        return TaskBatchResult.of(results);
+    }
+
+    private static Map<Status, Long> countByStatus(List<Task> tasks) {
+        Map<Status, Long> counts = new EnumMap<>(Status.class);
+        for (Task task : tasks) {
+            counts.merge(task.getStatus(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    private static void checkSize(List<?> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new BatchTooLargeException("Batch may contain at most " + MAX_BATCH_SIZE + " items");
+        }
+    }
+
+    private String validate(Object item) {
+        if (item == null) {
+            return "Item must not be null";
+        }
+
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // kazda kategoria sprawdzana raz na paczke, zwykle z cache CategoryService
+    private CategoryDTO resolveCategory(UUID categoryId, Map<UUID, CategoryDTO> resolved, Set<UUID> missing) {
+        if (missing.contains(categoryId)) {
+            return null;
+        }
+
+        CategoryDTO cached = resolved.get(categoryId);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            CategoryDTO category = categoryService.getAssignableCategory(categoryId);
+            resolved.put(categoryId, category);
+            return category;
+        } catch (NotFoundException e) {
+            missing.add(categoryId);
+            return null;
+        }
+    }
+}
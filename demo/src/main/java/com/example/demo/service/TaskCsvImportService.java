@@ -0,0 +1,281 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.domain.dto.Task.CsvImportError;
+import com.example.demo.domain.dto.Task.CsvImportResult;
+import com.example.demo.domain.dto.Task.TaskReceiveDTO;
+import com.example.demo.domain.entity.Task;
+import com.example.demo.domain.entity.User;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.exceptions.CsvIOException;
+import com.example.demo.domain.exceptions.InvalidCsvException;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.service.reminder.DeadlineReminderScheduler;
+import com.example.demo.service.search.TaskSearchIndex;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvMalformedLineException;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Validated
+@Service
+public class TaskCsvImportService {
+    private static final int CHUNK_SIZE = 500;
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    // naglowki takie jak w eksporcie, kolumny ID, Created At i Updated At sa pomijane
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String STATUS = "status";
+    private static final String DUE_DATE = "due date";
+    private static final String CATEGORY = "category";
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskStatusCountDao taskStatusCountDao;
+    private final ResourceVersionService resourceVersionService;
+    private final DeadlineReminderScheduler deadlineReminderScheduler;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public TaskCsvImportService(TaskRepository taskRepository, UserRepository userRepository, CategoryRepository categoryRepository, UserService userService, CategoryService categoryService, TaskSearchIndex taskSearchIndex, Validator validator, TransactionTemplate transactionTemplate, TaskStatusCountDao taskStatusCountDao, ResourceVersionService resourceVersionService, DeadlineReminderScheduler deadlineReminderScheduler, EntityManager entityManager) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.userService = userService;
+        this.categoryService = categoryService;
+        this.taskSearchIndex = taskSearchIndex;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.taskStatusCountDao = taskStatusCountDao;
+        this.resourceVersionService = resourceVersionService;
+        this.deadlineReminderScheduler = deadlineReminderScheduler;
+        this.entityManager = entityManager;
+    }
+
+    // plik czytany wiersz po wierszu, w pamieci trzymamy najwyzej jedna paczke CHUNK_SIZE zadan
+    public CsvImportResult importTasks(@NotNull MultipartFile file) {
+        UUID userId = userService.getLoggedUserId();
+        Map<String, UUID> categories = categoryLookup();
+
+        CsvImportResult result = new CsvImportResult();
+        List<TaskReceiveDTO> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try (CSVReader reader = new CSVReader(new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)))) {
+            String[] header = reader.readNext();
+
+            if (header == null) {
+                throw new InvalidCsvException("Csv file is empty");
+            }
+
+            Map<String, Integer> columns = columns(header);
+
+            long line = reader.getLinesRead() + 1;
+            String[] row;
+
+            while ((row = reader.readNext()) != null) {
+                if (!isBlank(row)) {
+                    try {
+                        chunk.add(parseRow(row, columns, categories));
+                    } catch (IllegalArgumentException e) {
+                        addError(result, line, e.getMessage());
+                    }
+
+                    if (chunk.size() == CHUNK_SIZE) {
+                        saveChunk(userId, chunk, result);
+                    }
+                }
+
+                line = reader.getLinesRead() + 1;
+            }
+
+            if (!chunk.isEmpty()) {
+                saveChunk(userId, chunk, result);
+            }
+        } catch (CsvMalformedLineException e) {
+            throw new InvalidCsvException("Malformed csv at line " + e.getLineNumber());
+        } catch (CsvValidationException e) {
+            throw new InvalidCsvException("Malformed csv at line " + e.getLineNumber());
+        } catch (IOException e) {
+            throw new CsvIOException("Błąd odczytu pliku csv");
+        }
+
+        return result;
+    }
+
+    // jedna mapa nazwa -> id na caly import zamiast zapytania o kategorie w kazdym wierszu
+    private Map<String, UUID> categoryLookup() {
+        Map<String, UUID> lookup = new HashMap<>();
+
+        for (CategoryDTO category : categoryService.getCategories()) {
+            lookup.putIfAbsent(category.getName().trim().toLowerCase(Locale.ROOT), category.getId());
+        }
+
+        return lookup;
+    }
+
+    private static Map<String, Integer> columns(String[] header) {
+        Map<String, Integer> columns = new HashMap<>();
+
+        for (int i = 0; i < header.length; i++) {
+            // excel dopisuje BOM na poczatku pliku
+            String name = header[i].replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+
+        for (String required : List.of(TITLE, STATUS, DUE_DATE)) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidCsvException("Missing column: " + required);
+            }
+        }
+
+        return columns;
+    }
+
+    private TaskReceiveDTO parseRow(String[] row, Map<String, Integer> columns, Map<String, UUID> categories) {
+        TaskReceiveDTO dto = new TaskReceiveDTO();
+        dto.setTitle(value(row, columns, TITLE));
+        dto.setDescription(value(row, columns, DESCRIPTION));
+
+        String status = value(row, columns, STATUS);
+        if (status != null) {
+            try {
+                dto.setStatus(Status.valueOf(status.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown status: " + status);
+            }
+        }
+
+        String dueDate = value(row, columns, DUE_DATE);
+        if (dueDate != null) {
+            try {
+                dto.setDueDate(LocalDateTime.parse(dueDate));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid due date: " + dueDate);
+            }
+        }
+
+        String category = value(row, columns, CATEGORY);
+        if (category != null) {
+            UUID categoryId = categories.get(category.toLowerCase(Locale.ROOT));
+            if (categoryId == null) {
+                throw new IllegalArgumentException("Unknown category: " + category);
+            }
+            dto.setCategoryId(categoryId);
+        }
+
+        Set<ConstraintViolation<TaskReceiveDTO>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        return dto;
+    }
+
+    // kazda paczka w osobnej transakcji i z czyszczeniem kontekstu persystencji po flush
+    // przy open-in-view commit go nie zamyka - EntityManager zapytania trzymalby encje wszystkich paczek do konca importu
+    private void saveChunk(UUID userId, List<TaskReceiveDTO> chunk, CsvImportResult result) {
+        List<Task> saved = transactionTemplate.execute(status -> {
+            User user = userRepository.getReferenceById(userId);
+            List<Task> tasks = new ArrayList<>(chunk.size());
+            Map<Status, Long> counts = new EnumMap<>(Status.class);
+
+            for (TaskReceiveDTO dto : chunk) {
+                Task task = new Task();
+                task.setTitle(dto.getTitle());
+                task.setDescription(dto.getDescription());
+                task.setStatus(dto.getStatus());
+                task.setDueDate(dto.getDueDate());
+                task.setCategory(dto.getCategoryId() != null ? categoryRepository.getReferenceById(dto.getCategoryId()) : null);
+                task.setUser(user);
+                tasks.add(task);
+                counts.merge(task.getStatus(), 1L, Long::sum);
+            }
+
+            // INSERT-y wychodza paczkami po hibernate.jdbc.batch_size
+            taskRepository.saveAll(tasks);
+            taskRepository.flush();
+            entityManager.clear();
+            taskStatusCountDao.add(userId, counts);
+
+            return tasks;
+        });
+
+        for (Task task : saved) {
+            taskSearchIndex.index(userId, task.getId(), task.getTitle(), task.getDescription());
+            deadlineReminderScheduler.schedule(task.getId(), userId, task.getTitle(), task.getDueDate(), task.getStatus());
+        }
+        // paczka juz zatwierdzona, wiec wersja rosnie od razu
+        resourceVersionService.tasksChanged(userId);
+
+        result.setImported(result.getImported() + saved.size());
+        chunk.clear();
+    }
+
+    private static void addError(CsvImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new CsvImportError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static String value(String[] row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+
+        if (index == null || index >= row.length) {
+            return null;
+        }
+
+        String value = row[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static boolean isBlank(String[] row) {
+        for (String cell : row) {
+            if (!cell.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.dto.Task.TaskExportJobDTO;
+import com.example.demo.domain.enums.ExportStatus;
+import com.example.demo.domain.exceptions.ExportNotReadyException;
+import com.example.demo.domain.exceptions.ExportQueueFullException;
+import com.example.demo.domain.exceptions.NotFoundException;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.service.job.BackgroundJob;
+import com.example.demo.service.job.BackgroundJobs;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+// eksport w tle: plik powstaje w katalogu roboczym, a klient odpytuje o status i pobiera gotowy wynik
+// joby trzymane w pamieci jak reszta danych (H2 w pamieci), po restarcie stare pliki sa usuwane
+@Service
+public class TaskExportService {
+    private static final Logger log = LoggerFactory.getLogger(TaskExportService.class);
+
+    private final TaskService taskService;
+    private final TaskStatusCountDao taskStatusCountDao;
+    private final UserService userService;
+    private final Path spoolDir;
+    private final BackgroundJobs<ExportJob> jobs;
+
+    @Autowired
+    public TaskExportService(
+            TaskService taskService,
+            TaskStatusCountDao taskStatusCountDao,
+            UserService userService,
+            @Value("${app.export.spool-dir:${java.io.tmpdir}/demo-exports}") String spoolDir,
+            @Value("${app.export.threads:2}") int threads,
+            @Value("${app.export.queue-capacity:20}") int queueCapacity,
+            @Value("${app.export.ttl:PT1H}") Duration ttl
+    ) {
+        this.taskService = taskService;
+        this.taskStatusCountDao = taskStatusCountDao;
+        this.userService = userService;
+        this.spoolDir = Path.of(spoolDir);
+        // kazdy eksport trzyma polaczenie przez caly odczyt, wiec watkow jest malo, a kolejka ograniczona
+        this.jobs = new BackgroundJobs<>("task-export", threads, queueCapacity, ttl);
+
+        prepareSpoolDir();
+    }
+
+    // jeden aktywny eksport na uzytkownika - ponowne zlecenie zwraca trwajacy job
+    public synchronized TaskExportJobDTO startExport() {
+        UUID userId = userService.getLoggedUserId();
+
+        ExportJob active = jobs.findActive(job -> job.userId.equals(userId)).orElse(null);
+        if (active != null) {
+            return mapToDTO(active);
+        }
+
+        long total = taskStatusCountDao.findByUser(userId).values().stream().mapToLong(Long::longValue).sum();
+        ExportJob job = new ExportJob(userId, total);
+
+        if (!jobs.submit(job, this::run)) {
+            throw new ExportQueueFullException("Too many exports in progress, try again later");
+        }
+
+        return mapToDTO(job);
+    }
+
+    public TaskExportJobDTO getJob(UUID id) {
+        return mapToDTO(findOwned(id));
+    }
+
+    public Path getExportFile(UUID id) {
+        ExportJob job = findOwned(id);
+
+        if (job.status != ExportStatus.DONE) {
+            throw new ExportNotReadyException("Export is " + job.status.name().toLowerCase());
+        }
+
+        Path file = resultFile(job.getId());
+        if (!Files.exists(file)) {
+            throw new NotFoundException("Export not found");
+        }
+
+        return file;
+    }
+
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval:PT5M}")
+    public int removeExpired() {
+        List<ExportJob> removed = jobs.removeExpired();
+        removed.forEach(job -> deleteQuietly(resultFile(job.getId())));
+        return removed.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdown();
+    }
+
+    private void run(ExportJob job) {
+        job.status = ExportStatus.RUNNING;
+        Path part = spoolDir.resolve(job.getId() + ".part");
+
+        // wynik najpierw do pliku tymczasowego, pod docelowa nazwa pojawia sie dopiero kompletny
+        try (OutputStream outputStream = Files.newOutputStream(part)) {
+            taskService.writeTasksCsv(job.userId, outputStream, written -> job.rowsWritten = written);
+        } catch (IOException | RuntimeException e) {
+            fail(job, part, e);
+            return;
+        }
+
+        try {
+            Files.move(part, resultFile(job.getId()), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            fail(job, part, e);
+            return;
+        }
+
+        job.finish();
+        job.status = ExportStatus.DONE;
+    }
+
+    private void fail(ExportJob job, Path part, Exception e) {
+        log.warn("Export {} failed", job.getId(), e);
+        deleteQuietly(part);
+        job.fail("Export failed");
+        job.status = ExportStatus.FAILED;
+    }
+
+    private ExportJob findOwned(UUID id) {
+        UUID userId = userService.getLoggedUserId();
+
+        return jobs.find(id)
+                .filter(job -> job.userId.equals(userId))
+                .orElseThrow(() -> new NotFoundException("Export not found"));
+    }
+
+    private Path resultFile(UUID id) {
+        return spoolDir.resolve(id + ".csv");
+    }
+
+    // pliki z poprzedniego uruchomienia nie maja juz jobow, wiec nikt ich nie pobierze
+    private void prepareSpoolDir() {
+        try {
+            Files.createDirectories(spoolDir);
+            try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(spoolDir, "*.{csv,part}")) {
+                leftovers.forEach(TaskExportService::deleteQuietly);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot prepare export directory " + spoolDir, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete export file {}", file, e);
+        }
+    }
+
+    private TaskExportJobDTO mapToDTO(ExportJob job) {
+        TaskExportJobDTO dto = new TaskExportJobDTO();
+        dto.setId(job.getId());
+        dto.setStatus(job.status);
+        dto.setRowsWritten(job.rowsWritten);
+        dto.setTotalRows(job.totalRows);
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setError(job.getError());
+        dto.setProgress(BackgroundJobs.progress(job.status == ExportStatus.DONE, job.rowsWritten, job.totalRows));
+
+        if (job.isFinished()) {
+            dto.setExpiresAt(jobs.expiresAt(job));
+        }
+
+        return dto;
+    }
+
+    // pola zmienia watek eksportu, a czytaja watki zapytan o status
+    private static class ExportJob extends BackgroundJob {
+        private final UUID userId;
+        private final long totalRows;
+        private volatile ExportStatus status = ExportStatus.QUEUED;
+        private volatile long rowsWritten;
+
+        private ExportJob(UUID userId, long totalRows) {
+            this.userId = userId;
+            this.totalRows = totalRows;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return status == ExportStatus.DONE || status == ExportStatus.FAILED;
+        }
+    }
+}
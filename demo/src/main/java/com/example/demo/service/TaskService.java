@@ -1,13 +1,17 @@
 package com.example.demo.service;
 
+import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.domain.dto.Task.TaskCsvRow;
+import com.example.demo.domain.dto.Task.TaskCursor;
+import com.example.demo.domain.dto.Task.TaskCursorPage;
 import com.example.demo.domain.dto.Task.TaskReceiveDTO;
 import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.dto.Task.TaskStatusChange;
 import com.example.demo.domain.dto.Task.TasksDashboard;
 import com.example.demo.domain.entity.Category;
 import com.example.demo.domain.enums.DeadlineFilter;
 import com.example.demo.domain.enums.Status;
 import com.example.demo.domain.entity.Task;
-import com.example.demo.domain.entity.User;
 import com.example.demo.domain.enums.TaskSort;
 import com.example.demo.domain.exceptions.CsvIOException;
 import com.example.demo.domain.exceptions.NotFoundException;
@@ -15,59 +19,154 @@ import com.example.demo.domain.mapper.TaskMapper;
 import com.example.demo.repository.CategoryRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.dao.DashboardJdbcDao;
+import com.example.demo.repository.dao.TaskPageDao;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.repository.dao.TaskWriteDao;
+import com.example.demo.service.reminder.DeadlineReminderScheduler;
+import com.example.demo.service.search.TaskSearchIndex;
 import com.opencsv.CSVWriter;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Timed(value = "app.service", histogram = true)
 @Validated
 @Service
 public class TaskService {
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    private static final int CSV_PROGRESS_STEP = 500;
+
+    private static final String[] CSV_HEADER = {
+            "ID", "Title", "Description", "Status",
+            "Due Date", "Category", "Created At", "Updated At"
+    };
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final TaskMapper taskMapper;
     private final UserService userService;
-    private final DashboardJdbcDao dashboardJdbcDao;
+    private final TaskStatusCountDao taskStatusCountDao;
+    private final TaskSearchIndex taskSearchIndex;
+    private final CategoryService categoryService;
+    private final ResourceVersionService resourceVersionService;
+    private final TaskPageDao taskPageDao;
+    private final DeadlineReminderScheduler deadlineReminderScheduler;
+    private final TaskWriteDao taskWriteDao;
 
     @Autowired
-    public TaskService(TaskRepository taskRepository, UserRepository userRepository, CategoryRepository categoryRepository, TaskMapper taskMapper, UserService userService, DashboardJdbcDao dashboardJdbcDao) {
+    public TaskService(TaskRepository taskRepository, UserRepository userRepository, CategoryRepository categoryRepository, TaskMapper taskMapper, UserService userService, TaskStatusCountDao taskStatusCountDao, TaskSearchIndex taskSearchIndex, CategoryService categoryService, ResourceVersionService resourceVersionService, TaskPageDao taskPageDao, DeadlineReminderScheduler deadlineReminderScheduler, TaskWriteDao taskWriteDao) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.taskMapper = taskMapper;
         this.userService = userService;
-        this.dashboardJdbcDao = dashboardJdbcDao;
+        this.taskStatusCountDao = taskStatusCountDao;
+        this.taskSearchIndex = taskSearchIndex;
+        this.categoryService = categoryService;
+        this.resourceVersionService = resourceVersionService;
+        this.taskPageDao = taskPageDao;
+        this.deadlineReminderScheduler = deadlineReminderScheduler;
+        this.taskWriteDao = taskWriteDao;
+    }
+
+    public Page<TaskResponseDTO> getTasks(String title, Status status, UUID categoryId, DeadlineFilter deadlineFilter,
+                                          TaskSort sort, Sort.Direction direction, Pageable pageable) {
+        UUID userId = userService.getLoggedUserId();
+        LocalDateTime before = deadlineBefore(deadlineFilter);
+        LocalDateTime after = deadlineAfter(deadlineFilter);
+
+        // id strony z indeksu sortowania, potem projekcja do DTO tylko dla tych wierszy
+        List<UUID> ids = taskPageDao.findPageIds(userId, title, status, categoryId, before, after,
+                sort, direction, pageable.getOffset(), pageable.getPageSize());
+
+        List<TaskResponseDTO> content = List.of();
+        if (!ids.isEmpty()) {
+            Map<UUID, TaskResponseDTO> rows = taskRepository.findResponsesByIdIn(ids).stream()
+                    .collect(Collectors.toMap(TaskResponseDTO::getId, Function.identity()));
+            content = ids.stream().map(rows::get).filter(Objects::nonNull).toList();
+        }
+
+        // COUNT tylko gdy z samej strony nie da sie wyliczyc liczby wszystkich wynikow
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> taskPageDao.count(userId, title, status, categoryId, before, after));
     }
 
-    public Page<TaskResponseDTO> getTasks(String title, Status status, UUID categoryId, DeadlineFilter deadlineFilter, Pageable pageable) {
-        LocalDateTime before = null;
-        LocalDateTime after = null;
+    public TaskCursorPage getTasksAfter(String title, Status status, UUID categoryId, DeadlineFilter deadlineFilter, String cursor, int size) {
+        TaskCursor position = cursor == null || cursor.isBlank() ? TaskCursor.START : TaskCursor.decode(cursor);
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
 
-        if (deadlineFilter == DeadlineFilter.BEFORE_DEADLINE) {
-            before = LocalDateTime.now();
-        } else if (deadlineFilter == DeadlineFilter.AFTER_DEADLINE) {
-            after = LocalDateTime.now();
+        // jeden wiersz wiecej mowi czy jest nastepna strona, bez osobnego COUNT
+        List<TaskResponseDTO> tasks = taskRepository.findFilteredAfter(
+                userService.getLoggedUserId(), title, status, categoryId,
+                deadlineBefore(deadlineFilter), deadlineAfter(deadlineFilter),
+                position.getCreatedAt(), position.getId(), Limit.of(limit + 1)
+        );
+
+        boolean hasNext = tasks.size() > limit;
+        List<TaskResponseDTO> slice = hasNext ? List.copyOf(tasks.subList(0, limit)) : tasks;
+
+        String nextCursor = null;
+        if (hasNext) {
+            TaskResponseDTO last = slice.get(slice.size() - 1);
+            nextCursor = new TaskCursor(last.getCreatedAt(), last.getId()).encode();
         }
 
-        Page<Task> tasks = taskRepository.findFiltered(userService.getLoggedUserId(), title, status, categoryId, before, after, pageable );
+        return new TaskCursorPage(slice, nextCursor);
+    }
 
-        return tasks.map(taskMapper::mapToResponseDTO);
+    public List<TaskResponseDTO> searchTasks(String query, int limit) {
+        List<UUID> ids = taskSearchIndex.search(userService.getLoggedUserId(), query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
 
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // projekcja z kategoria w jednym zapytaniu, IN nie zachowuje kolejnosci wiec ukladamy wedlug rankingu z indeksu
+        Map<UUID, TaskResponseDTO> rows = taskRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskResponseDTO::getId, Function.identity()));
+
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static LocalDateTime deadlineBefore(DeadlineFilter deadlineFilter) {
+        return deadlineFilter == DeadlineFilter.BEFORE_DEADLINE ? LocalDateTime.now() : null;
+    }
+
+    private static LocalDateTime deadlineAfter(DeadlineFilter deadlineFilter) {
+        return deadlineFilter == DeadlineFilter.AFTER_DEADLINE ? LocalDateTime.now() : null;
     }
 
     public TaskResponseDTO getTaskById(@NotNull UUID guid) {
@@ -77,14 +176,17 @@ public class TaskService {
         return taskMapper.mapToResponseDTO(task);
     }
 
+    @Transactional
     public TaskResponseDTO addTask(@Valid TaskReceiveDTO taskDTO) {
-        User user = userRepository.findById(userService.getLoggedUserId()).orElseThrow(() -> new NotFoundException("User not found"));
+        UUID userId = userService.getLoggedUserId();
 
+        // kategorie sprawdzamy w cache, do encji wystarczy referencja bez SELECT
+        CategoryDTO categoryDTO = null;
         Category category = null;
 
         if (taskDTO.getCategoryId() != null) {
-            category = categoryRepository.findById(taskDTO.getCategoryId())
-                    .orElseThrow(() -> new NotFoundException("Chosen category not found"));
+            categoryDTO = categoryService.getAssignableCategory(taskDTO.getCategoryId());
+            category = categoryRepository.getReferenceById(taskDTO.getCategoryId());
         }
 
         Task task = new Task();
@@ -93,35 +195,64 @@ public class TaskService {
         task.setStatus(taskDTO.getStatus());
         task.setCategory(category);
         task.setDueDate(taskDTO.getDueDate());
-        task.setUser(user);
+        task.setUser(userRepository.getReferenceById(userId));
 
         taskRepository.save(task);
+        taskStatusCountDao.increment(userId, task.getStatus(), 1);
+        taskSearchIndex.index(userId, task.getId(), task.getTitle(), task.getDescription());
+        deadlineReminderScheduler.schedule(task.getId(), userId, task.getTitle(), task.getDueDate(), task.getStatus());
+        resourceVersionService.tasksChanged(userId);
 
-        return taskMapper.mapToResponseDTO(task);
+        TaskResponseDTO response = taskMapper.mapToResponseDTOWithoutCategory(task);
+        response.setCategory(categoryDTO);
+
+        return response;
     }
 
     @Transactional
     public TaskResponseDTO updateTask(@Valid TaskReceiveDTO taskDTO, @NotNull UUID id) {
-        Task task = taskRepository.findById(id).orElseThrow(() -> new NotFoundException("Chosen task not found"));
+        UUID userId = userService.getLoggedUserId();
+        Task task = taskRepository.findOwnedForUpdate(id, userId).orElseThrow(() -> new NotFoundException("Chosen task not found"));
+
+        taskStatusCountDao.move(userId, task.getStatus(), taskDTO.getStatus());
 
         task.setTitle(taskDTO.getTitle());
         task.setDescription(taskDTO.getDescription());
         task.setStatus(taskDTO.getStatus());
         task.setDueDate(taskDTO.getDueDate());
+
+        CategoryDTO categoryDTO = null;
         if (taskDTO.getCategoryId() != null) {
-            Category category = categoryRepository.findById(taskDTO.getCategoryId())
-                    .orElseThrow(() -> new NotFoundException("Chosen category not found"));
-            task.setCategory(category);
+            categoryDTO = categoryService.getAssignableCategory(taskDTO.getCategoryId());
+            task.setCategory(categoryRepository.getReferenceById(taskDTO.getCategoryId()));
         } else {
             task.setCategory(null);
         }
 
-        return taskMapper.mapToResponseDTO(task);
+        taskSearchIndex.index(userId, task.getId(), task.getTitle(), task.getDescription());
+        deadlineReminderScheduler.schedule(task.getId(), userId, task.getTitle(), task.getDueDate(), task.getStatus());
+        resourceVersionService.tasksChanged(userId);
+
+        TaskResponseDTO response = taskMapper.mapToResponseDTOWithoutCategory(task);
+        response.setCategory(categoryDTO);
+
+        return response;
     }
 
+    @Transactional
     public void deleteTask(@NotNull UUID id) {
-        Task task = taskRepository.findById(id).orElseThrow(() -> new NotFoundException("Chosen task not found"));
-        taskRepository.delete(task);
+        UUID userId = userService.getLoggedUserId();
+
+        // jedno polecenie usuwa zadanie i zdejmuje je z licznika jego statusu
+        int deleted = taskWriteDao.deleteOwned(id, userId);
+
+        if (deleted == 0) {
+            throw new NotFoundException("Chosen task not found");
+        }
+
+        taskSearchIndex.remove(userId, id);
+        deadlineReminderScheduler.cancel(id);
+        resourceVersionService.tasksChanged(userId);
     }
 
     public byte[] exportTasksToCsv() {
@@ -133,10 +264,7 @@ public class TaskService {
 
             CSVWriter csvWriter = new CSVWriter(writer);
 
-            csvWriter.writeNext(new String[]{
-                    "ID", "Title", "Description", "Status",
-                    "Due Date", "Category", "Created At", "Updated At"
-            });
+            csvWriter.writeNext(CSV_HEADER);
 
             for (Task task : tasks) {
                 csvWriter.writeNext(new String[]{
@@ -158,20 +286,73 @@ public class TaskService {
         }
     }
 
+    @Transactional
+    public void exportTasksToCsv(OutputStream outputStream) {
+        writeTasksCsv(userService.getLoggedUserId(), outputStream);
+    }
+
+    // stream musi byc czytany wewnatrz transakcji, inaczej polaczenie zamknie sie przed koncem
+    @Transactional
+    public long writeTasksCsv(@NotNull UUID userId, OutputStream outputStream) {
+        return writeTasksCsv(userId, outputStream, written -> {});
+    }
+
+    // progress dostaje liczbe zapisanych wierszy co CSV_PROGRESS_STEP wierszy i raz na koncu
+    @Transactional
+    public long writeTasksCsv(@NotNull UUID userId, OutputStream outputStream, @NotNull LongConsumer progress) {
+        long written = 0;
+
+        try (Stream<TaskCsvRow> rows = taskRepository.streamCsvRowsByUserId(userId)) {
+            CSVWriter csvWriter = new CSVWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+
+            csvWriter.writeNext(CSV_HEADER);
+
+            Iterator<TaskCsvRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TaskCsvRow row = iterator.next();
+                csvWriter.writeNext(new String[]{
+                        row.getId().toString(),
+                        row.getTitle(),
+                        row.getDescription(),
+                        row.getStatus().name(),
+                        row.getDueDate().toString(),
+                        row.getCategoryName() != null ? row.getCategoryName() : "",
+                        row.getCreatedAt().toString(),
+                        row.getUpdatedAt().toString()
+                });
+                written++;
+                if (written % CSV_PROGRESS_STEP == 0) {
+                    progress.accept(written);
+                }
+            }
+
+            // nie zamykamy writera, strumien odpowiedzi zamyka spring
+            csvWriter.flush();
+            progress.accept(written);
+        } catch (IOException e) {
+            throw new CsvIOException("Błąd tworzenia pliku csv");
+        }
+
+        return written;
+    }
+
     public TasksDashboard getTasksDashboard() {
         UUID userid = userService.getLoggedUserId();
 
-        long totalTasks = dashboardJdbcDao.countAll(userid);
+        // liczniki utrzymywane przy kazdym zapisie - odczyt kilku wierszy po kluczu zamiast liczenia zadan
+        Map<Status, Long> counts = taskStatusCountDao.findByUser(userid);
+
+        long totalTasks = counts.values().stream().mapToLong(Long::longValue).sum();
 
         if (totalTasks == 0) {
             return new TasksDashboard();
         }
 
-        long todo = dashboardJdbcDao.countByStatus(userid, Status.TODO);
+        long todo = counts.get(Status.TODO);
 
-        long inProgress = dashboardJdbcDao.countByStatus(userid, Status.IN_PROGRESS);
+        long inProgress = counts.get(Status.IN_PROGRESS);
 
-        long done = dashboardJdbcDao.countByStatus(userid, Status.DONE);
+        long done = counts.get(Status.DONE);
 
         float completedProcent = (done * 100f) / totalTasks;
 
@@ -185,12 +366,22 @@ public class TaskService {
         return tasksDashboard;
     }
 
+    @Transactional
     public TaskResponseDTO updateStatus(@NotNull Status newStatus, @NotNull UUID taskId) {
-        Task task = taskRepository.findById(taskId).orElseThrow(() -> new NotFoundException("Chosen task not found"));
+        UUID userId = userService.getLoggedUserId();
 
-        task.setStatus(newStatus);
-        taskRepository.save(task);
+        // UPDATE oddaje wiersz sprzed zmiany - stary status do licznikow i pola odpowiedzi bez dodatkowego SELECT
+        TaskStatusChange change = taskWriteDao.updateStatusOwned(taskId, userId, newStatus, LocalDateTime.now())
+                .orElseThrow(() -> new NotFoundException("Chosen task not found"));
 
-        return taskMapper.mapToResponseDTO(task);
+        taskStatusCountDao.move(userId, change.getPreviousStatus(), newStatus);
+        TaskResponseDTO response = change.getTask();
+        deadlineReminderScheduler.schedule(taskId, userId, response.getTitle(), response.getDueDate(), newStatus);
+        resourceVersionService.tasksChanged(userId);
+
+        // kategoria z cache zamiast doczytywania jej z bazy
+        response.setCategory(change.getCategoryId() != null ? categoryService.getCategoryById(change.getCategoryId()) : null);
+
+        return response;
     }
 }
@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import com.example.demo.domain.enums.Status;
+import com.example.demo.repository.dao.DashboardJdbcDao;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// liczniki zmieniaja sie razem z zadaniami, ale wiersze wstawione z pominieciem serwisow (data.sql, reczny SQL) je rozjezdzaja
+@Service
+public class TaskStatusCountReconciler {
+    private static final Logger log = LoggerFactory.getLogger(TaskStatusCountReconciler.class);
+
+    private final TaskStatusCountDao taskStatusCountDao;
+    private final DashboardJdbcDao dashboardJdbcDao;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceVersionService resourceVersionService;
+
+    @Autowired
+    public TaskStatusCountReconciler(TaskStatusCountDao taskStatusCountDao, DashboardJdbcDao dashboardJdbcDao, TransactionTemplate transactionTemplate, ResourceVersionService resourceVersionService) {
+        this.taskStatusCountDao = taskStatusCountDao;
+        this.dashboardJdbcDao = dashboardJdbcDao;
+        this.transactionTemplate = transactionTemplate;
+        this.resourceVersionService = resourceVersionService;
+    }
+
+    // pierwszy przebieg zaraz po starcie, zeby policzyc zadania z data.sql
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.dashboard.reconcile-interval:PT10M}")
+    public int reconcile() {
+        List<UUID> drifted = taskStatusCountDao.findUsersWithDrift();
+
+        for (UUID userId : drifted) {
+            // kazdy uzytkownik w osobnej transakcji, blokada trzyma tylko jego liczniki
+            transactionTemplate.executeWithoutResult(status -> repair(userId));
+        }
+
+        if (!drifted.isEmpty()) {
+            log.warn("Repaired task status counters of {} user(s)", drifted.size());
+        }
+
+        return drifted.size();
+    }
+
+    private void repair(UUID userId) {
+        // zapis zadania w trakcie liczenia czeka na blokade licznika, wiec jego zmiana nie zginie ani nie policzy sie dwa razy
+        taskStatusCountDao.lockByUser(userId);
+        Map<Status, Long> actual = dashboardJdbcDao.countGroupedByStatus(userId);
+        taskStatusCountDao.set(userId, actual);
+        // dashboard odpowiada 304 dopoki ETag sie nie zmieni - bez tego klient zostalby przy blednych licznikach
+        resourceVersionService.tasksChanged(userId);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.service.job;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// wspolne pola jobow w tle - zmienia je watek roboczy, a czytaja watki zapytan o status
+// status (volatile w podklasie) ustawiany po finish/fail, wiec kto zobaczy koniec, widzi tez czas i blad
+public abstract class BackgroundJob {
+    private final UUID id = UUID.randomUUID();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public abstract boolean isFinished();
+
+    public void finish() {
+        finishedAt = LocalDateTime.now();
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finishedAt = LocalDateTime.now();
+    }
+}
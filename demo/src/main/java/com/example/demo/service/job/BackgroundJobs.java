@@ -0,0 +1,96 @@
+package com.example.demo.service.job;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// joby w tle trzymane w pamieci: stala pula watkow daemon, ograniczona kolejka i wygasanie po ttl od zakonczenia
+// pelna kolejka odrzuca nowy job od razu zamiast trzymac klienta w nieskonczonej kolejce
+public class BackgroundJobs<J extends BackgroundJob> {
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, J> jobs = new ConcurrentHashMap<>();
+
+    public BackgroundJobs(String threadName, int threads, int queueCapacity, Duration ttl) {
+        this.ttl = ttl;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadName + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public Optional<J> find(UUID id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public Optional<J> findActive(Predicate<J> matches) {
+        return jobs.values().stream()
+                .filter(job -> !job.isFinished() && matches.test(job))
+                .findFirst();
+    }
+
+    // false gdy kolejka jest pelna - job nie zostaje w rejestrze
+    public boolean submit(J job, Consumer<J> work) {
+        jobs.put(job.getId(), job);
+
+        try {
+            executor.execute(() -> work.accept(job));
+            return true;
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            return false;
+        }
+    }
+
+    // zwraca usuniete joby, zeby wolajacy mogl posprzatac ich wyniki
+    public List<J> removeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        List<J> removed = new ArrayList<>();
+
+        Iterator<J> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            J job = iterator.next();
+            if (job.isFinished() && !expiresAt(job).isAfter(now)) {
+                iterator.remove();
+                removed.add(job);
+            }
+        }
+
+        return removed;
+    }
+
+    public LocalDateTime expiresAt(J job) {
+        return job.getFinishedAt().plus(ttl);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // licznik z chwili zlecenia moze byc nieaktualny, wiec przed zakonczeniem najwyzej 99%
+    public static int progress(boolean done, long processed, long total) {
+        if (done) {
+            return 100;
+        }
+        return total > 0 ? (int) Math.min(99, processed * 100 / total) : 0;
+    }
+}
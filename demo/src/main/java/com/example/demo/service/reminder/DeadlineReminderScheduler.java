@@ -0,0 +1,218 @@
+package com.example.demo.service.reminder;
+
+import com.example.demo.domain.dto.Task.DeadlineReminder;
+import com.example.demo.domain.dto.Task.TaskReminderRow;
+import com.example.demo.domain.enums.ReminderType;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.service.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// przypomnienia o terminach: terminy wczytane raz przy starcie, potem aktualizowane przy zapisach zadan
+// jeden watek czeka na DelayQueue na najblizszy termin, zamiast co minute przegladac tabele task
+@Component
+public class DeadlineReminderScheduler {
+    private static final Logger log = LoggerFactory.getLogger(DeadlineReminderScheduler.class);
+
+    // zmiana terminu zostawia stare wpisy w kolejce - czyscimy ja dopiero gdy jest ich wyraznie wiecej niz aktualnych
+    private static final int PURGE_THRESHOLD = 1000;
+
+    private final TaskRepository taskRepository;
+    private final List<DeadlineReminderSink> sinks;
+    private final Duration dueSoonLead;
+    private final DelayQueue<Entry> queue = new DelayQueue<>();
+    private final Map<UUID, Registration> registrations = new ConcurrentHashMap<>();
+    private final AtomicLong fired = new AtomicLong();
+    private final Thread dispatcher;
+
+    @Autowired
+    public DeadlineReminderScheduler(
+            TaskRepository taskRepository,
+            List<DeadlineReminderSink> sinks,
+            @Value("${app.reminders.due-soon-lead:PT1H}") Duration dueSoonLead
+    ) {
+        this.taskRepository = taskRepository;
+        this.sinks = sinks;
+        this.dueSoonLead = dueSoonLead;
+
+        this.dispatcher = new Thread(this::dispatch, "deadline-reminders");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    // tylko przyszle terminy - zadania przeterminowane przed startem nie dostaja ponownego alertu po kazdym restarcie
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        synchronized (this) {
+            registrations.clear();
+            queue.clear();
+        }
+
+        try (Stream<TaskReminderRow> rows = taskRepository.streamReminderRows(Status.DONE, LocalDateTime.now())) {
+            rows.forEach(row -> register(row.getId(), row.getUserId(), row.getTitle(), row.getDueDate()));
+        }
+    }
+
+    // wywolywane przy kazdym zapisie zadania, zmiana widoczna dopiero po commicie
+    public void schedule(UUID taskId, UUID userId, String title, LocalDateTime dueDate, Status status) {
+        AfterCommit.run(() -> {
+            if (status == Status.DONE) {
+                registrations.remove(taskId);
+            } else {
+                register(taskId, userId, title, dueDate);
+            }
+        });
+    }
+
+    public void cancel(UUID taskId) {
+        AfterCommit.run(() -> registrations.remove(taskId));
+    }
+
+    public void cancelAll(Collection<UUID> taskIds) {
+        AfterCommit.run(() -> taskIds.forEach(registrations::remove));
+    }
+
+    public int getScheduledCount() {
+        return registrations.size();
+    }
+
+    public long getFiredCount() {
+        return fired.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.interrupt();
+    }
+
+    private synchronized void register(UUID taskId, UUID userId, String title, LocalDateTime dueDate) {
+        if (dueDate == null || !dueDate.isAfter(LocalDateTime.now())) {
+            registrations.remove(taskId);
+            return;
+        }
+
+        // ten sam termin - wpisy zostaja, zeby edycja tytulu nie wysylala drugi raz "due soon"
+        Registration current = registrations.get(taskId);
+        if (current != null && current.dueDate.equals(dueDate)) {
+            current.title = title;
+            return;
+        }
+
+        Registration registration = new Registration(taskId, userId, title, dueDate);
+        registrations.put(taskId, registration);
+
+        long dueAt = toMillis(dueDate);
+        if (!dueSoonLead.isZero()) {
+            queue.add(new Entry(registration, ReminderType.DUE_SOON, Math.max(System.currentTimeMillis(), dueAt - dueSoonLead.toMillis())));
+        }
+        queue.add(new Entry(registration, ReminderType.OVERDUE, dueAt));
+
+        if (queue.size() > 2 * registrations.size() + PURGE_THRESHOLD) {
+            queue.removeIf(entry -> !entry.isCurrent());
+        }
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Entry entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            // wpis po zmianie terminu, usunieciu lub zakonczeniu zadania
+            if (!entry.isCurrent()) {
+                continue;
+            }
+
+            Registration registration = entry.registration;
+            if (entry.type == ReminderType.OVERDUE) {
+                registrations.remove(registration.taskId, registration);
+            }
+
+            fire(new DeadlineReminder(entry.type, registration.taskId, registration.userId, registration.title, registration.dueDate));
+        }
+    }
+
+    // blad jednego odbiorcy nie moze zatrzymac watku ani pozostalych odbiorcow
+    private void fire(DeadlineReminder reminder) {
+        fired.incrementAndGet();
+
+        for (DeadlineReminderSink sink : sinks) {
+            try {
+                sink.onReminder(reminder);
+            } catch (RuntimeException e) {
+                log.warn("Reminder sink {} failed for task {}", sink.getClass().getSimpleName(), reminder.getTaskId(), e);
+            }
+        }
+    }
+
+    // zaokraglenie w gore, zeby "overdue" nie przyszlo ulamek milisekundy przed terminem
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().plusNanos(999_999).toEpochMilli();
+    }
+
+    private static class Registration {
+        private final UUID taskId;
+        private final UUID userId;
+        private final LocalDateTime dueDate;
+        private volatile String title;
+
+        private Registration(UUID taskId, UUID userId, String title, LocalDateTime dueDate) {
+            this.taskId = taskId;
+            this.userId = userId;
+            this.title = title;
+            this.dueDate = dueDate;
+        }
+    }
+
+    private class Entry implements Delayed {
+        private final Registration registration;
+        private final ReminderType type;
+        private final long fireAt;
+
+        private Entry(Registration registration, ReminderType type, long fireAt) {
+            this.registration = registration;
+            this.type = type;
+            this.fireAt = fireAt;
+        }
+
+        private boolean isCurrent() {
+            return registrations.get(registration.taskId) == registration;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(fireAt, ((Entry) other).fireAt);
+        }
+    }
+}
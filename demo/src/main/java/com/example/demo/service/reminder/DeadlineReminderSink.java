@@ -0,0 +1,8 @@
+package com.example.demo.service.reminder;
+
+import com.example.demo.domain.dto.Task.DeadlineReminder;
+
+// odbiorca przypomnien - wywolywany z watku planisty, wiec nie powinien dlugo blokowac
+public interface DeadlineReminderSink {
+    void onReminder(DeadlineReminder reminder);
+}
@@ -0,0 +1,18 @@
+package com.example.demo.service.reminder;
+
+import com.example.demo.domain.dto.Task.DeadlineReminder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// domyslny odbiorca - kolejne (mail, websocket) wystarczy dodac jako beany DeadlineReminderSink
+@Component
+public class LoggingDeadlineReminderSink implements DeadlineReminderSink {
+    private static final Logger log = LoggerFactory.getLogger(LoggingDeadlineReminderSink.class);
+
+    @Override
+    public void onReminder(DeadlineReminder reminder) {
+        log.info("Task {} of user {} is {}: '{}' due {}", reminder.getTaskId(), reminder.getUserId(),
+                reminder.getType().name().toLowerCase(), reminder.getTitle(), reminder.getDueDate());
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.demo.service.search;
+
+import com.example.demo.domain.dto.Task.TaskSearchRow;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.service.AfterCommit;
+import jakarta.transaction.Transactional;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// odwrocony indeks tytul/opis -> zadania, osobny dla kazdego uzytkownika zeby wyszukiwanie nie przegladalo cudzych zadan
+@Component
+public class TaskSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int TITLE_WEIGHT = 3;
+
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // pelne slowo liczy sie bardziej niz samo dopasowanie prefiksu
+    private static final int EXACT_MATCH_BONUS = 2;
+
+    private final Map<UUID, UserIndex> users = new ConcurrentHashMap<>();
+
+    private final TaskRepository taskRepository;
+
+    public TaskSearchIndex(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        users.clear();
+
+        try (Stream<TaskSearchRow> rows = taskRepository.streamSearchRows()) {
+            rows.forEach(row -> put(row.getUserId(), row.getId(), row.getTitle(), row.getDescription()));
+        }
+    }
+
+    // wywolywane przy zapisach zadan, wycofana transakcja nie zostawia w indeksie wpisow bez wiersza
+    public void index(UUID userId, UUID taskId, String title, String description) {
+        AfterCommit.run(() -> put(userId, taskId, title, description));
+    }
+
+    public void remove(UUID userId, UUID taskId) {
+        AfterCommit.run(() -> {
+            UserIndex userIndex = users.get(userId);
+
+            if (userIndex != null) {
+                userIndex.remove(taskId);
+            }
+        });
+    }
+
+    // zwraca id zadan pasujacych do wszystkich slow zapytania, od najlepiej dopasowanego
+    public List<UUID> search(UUID userId, String query, int limit) {
+        List<String> terms = tokenize(query);
+        UserIndex userIndex = users.get(userId);
+
+        if (terms.isEmpty() || userIndex == null || limit <= 0) {
+            return List.of();
+        }
+
+        Map<UUID, Integer> scores = userIndex.score(terms);
+
+        Comparator<Map.Entry<UUID, Integer>> byScore = Map.Entry.comparingByValue();
+        PriorityQueue<Map.Entry<UUID, Integer>> top = new PriorityQueue<>(byScore);
+        for (Map.Entry<UUID, Integer> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Map.Entry<UUID, Integer>> ranked = new ArrayList<>(top);
+        ranked.sort(byScore.reversed());
+
+        return ranked.stream().map(Map.Entry::getKey).toList();
+    }
+
+    private void put(UUID userId, UUID taskId, String title, String description) {
+        Map<String, Integer> weights = new HashMap<>();
+        addTokens(weights, title, TITLE_WEIGHT);
+        addTokens(weights, description, DESCRIPTION_WEIGHT);
+
+        users.computeIfAbsent(userId, id -> new UserIndex()).put(taskId, weights);
+    }
+
+    private static void addTokens(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        return Stream.of(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static class UserIndex {
+        // slowo -> (zadanie -> waga)
+        private final NavigableMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+
+        // zadanie -> jego slowa, potrzebne do usuniecia starych wpisow przy edycji
+        private final Map<UUID, Map<String, Integer>> documents = new HashMap<>();
+
+        synchronized void put(UUID taskId, Map<String, Integer> weights) {
+            remove(taskId);
+            documents.put(taskId, weights);
+
+            weights.forEach((token, weight) ->
+                    postings.computeIfAbsent(token, t -> new HashMap<>()).put(taskId, weight));
+        }
+
+        synchronized void remove(UUID taskId) {
+            Map<String, Integer> previous = documents.remove(taskId);
+
+            if (previous == null) {
+                return;
+            }
+
+            for (String token : previous.keySet()) {
+                Map<UUID, Integer> tasks = postings.get(token);
+                tasks.remove(taskId);
+                if (tasks.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+
+        // zaczyna od slowa z najmniejsza liczba dopasowan, pozostale sprawdza na slowach kandydatow
+        // zamiast laczyc listy zadan czestych slow, ktore przy duzej liczbie zadan obejmuja prawie wszystko
+        synchronized Map<UUID, Integer> score(List<String> terms) {
+            String rarest = null;
+            long fewest = Long.MAX_VALUE;
+
+            for (String term : terms) {
+                long matches = 0;
+                for (Map<UUID, Integer> tasks : prefixMatches(term).values()) {
+                    matches += tasks.size();
+                }
+
+                if (matches == 0) {
+                    return Map.of();
+                }
+                if (matches < fewest) {
+                    fewest = matches;
+                    rarest = term;
+                }
+            }
+
+            String first = rarest;
+            Map<UUID, Integer> total = new HashMap<>();
+            prefixMatches(first).forEach((token, tasks) -> {
+                int bonus = token.equals(first) ? EXACT_MATCH_BONUS : 1;
+                tasks.forEach((taskId, weight) -> total.merge(taskId, weight * bonus, Math::max));
+            });
+
+            for (String term : terms) {
+                if (term.equals(first)) {
+                    continue;
+                }
+
+                Iterator<Map.Entry<UUID, Integer>> candidates = total.entrySet().iterator();
+                while (candidates.hasNext()) {
+                    Map.Entry<UUID, Integer> candidate = candidates.next();
+                    int termScore = termScore(documents.get(candidate.getKey()), term);
+
+                    if (termScore == 0) {
+                        candidates.remove();
+                    } else {
+                        candidate.setValue(candidate.getValue() + termScore);
+                    }
+                }
+            }
+
+            return total;
+        }
+
+        // wszystkie slowa zaczynajace sie od term
+        private NavigableMap<String, Map<UUID, Integer>> prefixMatches(String term) {
+            return postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        }
+
+        // najlepsze dopasowanie term w jednym zadaniu, 0 gdy zadne slowo nie pasuje
+        private static int termScore(Map<String, Integer> weights, String term) {
+            int best = 0;
+
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                String token = entry.getKey();
+                if (token.startsWith(term)) {
+                    int bonus = token.equals(term) ? EXACT_MATCH_BONUS : 1;
+                    best = Math.max(best, entry.getValue() * bonus);
+                }
+            }
+
+            return best;
+        }
+    }
+}
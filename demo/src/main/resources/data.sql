@@ -91,3 +91,7 @@ VALUES (
            CURRENT_TIMESTAMP
        );
 
+
+-- liczniki dla zadan wstawionych powyzej z pominieciem serwisow, zeby pierwszy przebieg TaskStatusCountReconciler nie mial czego naprawiac
+INSERT INTO task_status_count (user_id, status, cnt)
+SELECT user_id, status, COUNT(*) FROM task GROUP BY user_id, status;
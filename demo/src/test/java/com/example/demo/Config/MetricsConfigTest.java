@@ -0,0 +1,34 @@
+package com.example.demo.Config;
+
+import com.example.demo.config.MetricsConfig;
+import com.example.demo.service.CategoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsConfigTest {
+
+    @Mock
+    CategoryService categoryService;
+
+    @Test
+    void shouldExposeCategoryCacheCountersAndSize() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        when(categoryService.getCacheHits()).thenReturn(7L);
+        when(categoryService.getCacheMisses()).thenReturn(2L);
+        when(categoryService.getCacheSize()).thenReturn(3);
+
+        new MetricsConfig().categoryCacheMetrics(categoryService).bindTo(registry);
+
+        assertEquals(7.0, registry.get("app.category.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("app.category.cache.requests").tag("result", "miss").functionCounter().count());
+        assertEquals(3.0, registry.get("app.category.cache.size").gauge().value());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.Config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.demo.config.logging.SamplingTurboFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.DEBUG);
+        root.addAppender(appender);
+    }
+
+    private void addFilter(int rate) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setContext(context);
+        filter.setLoggerName("org.hibernate.SQL");
+        filter.setRate(rate);
+        filter.start();
+        context.addTurboFilter(filter);
+    }
+
+    @Test
+    void shouldPassEveryNthEntryOfSampledLogger() {
+        addFilter(5);
+        Logger sql = context.getLogger("org.hibernate.SQL");
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(sql.isDebugEnabled());
+            sql.debug("select " + i);
+        }
+
+        assertEquals(2, appender.list.size());
+        assertEquals("select 0", appender.list.get(0).getMessage());
+        assertEquals("select 5", appender.list.get(1).getMessage());
+    }
+
+    @Test
+    void shouldNotTouchOtherLoggers() {
+        addFilter(5);
+        Logger slow = context.getLogger("org.hibernate.SQL_SLOW");
+
+        for (int i = 0; i < 3; i++) {
+            slow.info("slow " + i);
+        }
+
+        assertEquals(3, appender.list.size());
+    }
+
+    @Test
+    void shouldDropAllEntriesWhenRateIsZero() {
+        addFilter(0);
+        Logger sql = context.getLogger("org.hibernate.SQL");
+
+        sql.debug("select 1");
+
+        assertFalse(sql.isDebugEnabled());
+        assertTrue(appender.list.isEmpty());
+    }
+}
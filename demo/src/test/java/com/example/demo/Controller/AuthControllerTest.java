@@ -2,6 +2,7 @@ package com.example.demo.Controller;
 
 import com.example.demo.controller.api.AuthController;
 import com.example.demo.domain.dto.RegisterDTO;
+import com.example.demo.domain.exceptions.PasswordHashingBusyException;
 import com.example.demo.domain.exceptions.UserAlreadyExistsException;
 import com.example.demo.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -19,6 +20,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AuthController.class)
@@ -66,6 +68,24 @@ class AuthControllerTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    @WithMockUser
+    void shouldReturn503WhenPasswordHashingIsBusy() throws Exception {
+        RegisterDTO dto = new RegisterDTO();
+        dto.setUsername("john");
+        dto.setPassword("secret");
+
+        doThrow(new PasswordHashingBusyException("busy"))
+                .when(userService).register(any());
+
+        mockMvc.perform(post("/api/auth/register")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
     @Test
     @WithMockUser
     void shouldReturn400WhenUsernameMissing() throws Exception {
@@ -2,9 +2,14 @@ package com.example.demo.Controller;
 
 import com.example.demo.controller.api.CategoryController;
 import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.domain.dto.Category.CategoryDeletionJobDTO;
 import com.example.demo.domain.dto.Category.CategoryReceiveDTO;
+import com.example.demo.domain.enums.CategoryDeletionStatus;
+import com.example.demo.domain.exceptions.CategoryDeletionConflictException;
 import com.example.demo.domain.exceptions.NotFoundException;
+import com.example.demo.service.CategoryDeletionService;
 import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +25,8 @@ import java.util.UUID;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -34,6 +41,12 @@ class CategoryControllerTest {
     @MockitoBean
     private CategoryService categoryService;
 
+    @MockitoBean
+    private ResourceVersionService resourceVersionService;
+
+    @MockitoBean
+    private CategoryDeletionService categoryDeletionService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -52,6 +65,18 @@ class CategoryControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Work"));
     }
 
+    @Test
+    @WithMockUser
+    void shouldReturn304WhenCategoriesAreUnchanged() throws Exception {
+        when(resourceVersionService.categoriesEtag()).thenReturn("W/\"categories-1\"");
+
+        mockMvc.perform(get("/api/categories").header("If-None-Match", "W/\"categories-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"categories-1\""));
+
+        verify(categoryService, never()).getCategories();
+    }
+
     @Test
     @WithMockUser
     void shouldCreateCategory() throws Exception {
@@ -134,13 +159,79 @@ class CategoryControllerTest {
     void shouldDeleteCategory() throws Exception {
         UUID id = UUID.randomUUID();
 
-        doNothing().when(categoryService).deleteCategory(id);
+        doNothing().when(categoryService).deleteCategory(id, null);
+
+        mockMvc.perform(delete("/api/categories/{id}", id)
+                        .with(csrf()))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldDeleteCategoryInBatches() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID target = UUID.randomUUID();
 
         mockMvc.perform(delete("/api/categories/{id}", id)
+                        .param("mode", "CHUNKED")
+                        .param("reassignTo", target.toString())
                         .with(csrf()))
                 .andExpect(status().isNoContent());
+
+        verify(categoryDeletionService).deleteInBatches(id, target);
+        verify(categoryService, never()).deleteCategory(any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldStartBackgroundDeletion() throws Exception {
+        UUID id = UUID.randomUUID();
+        CategoryDeletionJobDTO job = new CategoryDeletionJobDTO();
+        job.setId(UUID.randomUUID());
+        job.setCategoryId(id);
+        job.setStatus(CategoryDeletionStatus.QUEUED);
+
+        when(categoryDeletionService.startDeletion(id, null)).thenReturn(job);
+
+        mockMvc.perform(delete("/api/categories/{id}", id)
+                        .param("mode", "BACKGROUND")
+                        .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/categories/deletions/" + job.getId()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturnDeletionJob() throws Exception {
+        CategoryDeletionJobDTO job = new CategoryDeletionJobDTO();
+        job.setId(UUID.randomUUID());
+        job.setStatus(CategoryDeletionStatus.RUNNING);
+        job.setTasksMoved(500);
+        job.setTotalTasks(2000);
+        job.setProgress(25);
+
+        when(categoryDeletionService.getJob(job.getId())).thenReturn(job);
+
+        mockMvc.perform(get("/api/categories/deletions/{jobId}", job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.progress").value(25))
+                .andExpect(jsonPath("$.tasksMoved").value(500));
     }
 
+    @Test
+    @WithMockUser
+    void shouldReturn409WhenCategoryIsAlreadyBeingDeleted() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(categoryDeletionService.deleteInBatches(id, null))
+                .thenThrow(new CategoryDeletionConflictException("Category is already being deleted"));
+
+        mockMvc.perform(delete("/api/categories/{id}", id)
+                        .param("mode", "CHUNKED")
+                        .with(csrf()))
+                .andExpect(status().isConflict());
+    }
 
     @Test
     void shouldReturn401WhenNotAuthenticated() throws Exception {
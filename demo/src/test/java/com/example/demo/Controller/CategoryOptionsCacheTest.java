@@ -0,0 +1,95 @@
+package com.example.demo.Controller;
+
+import com.example.demo.controller.view.CategoryOptionsCache;
+import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryOptionsCacheTest {
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    ResourceVersionService resourceVersionService;
+
+    SpringTemplateEngine templateEngine;
+
+    UUID workId = UUID.randomUUID();
+    UUID homeId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        when(categoryService.getCategories()).thenReturn(List.of(category(workId, "Work"), category(homeId, "Home & Garden")));
+    }
+
+    private static CategoryDTO category(UUID id, String name) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(id);
+        dto.setName(name);
+        return dto;
+    }
+
+    @Test
+    void shouldRenderOptionsAndMarkSelectedCategory() {
+        when(resourceVersionService.categoriesEtag()).thenReturn("v1");
+        CategoryOptionsCache cache = new CategoryOptionsCache(categoryService, resourceVersionService, templateEngine, true);
+
+        String html = cache.render(homeId);
+
+        assertTrue(html.contains("<option value=\"" + workId + "\">Work</option>"));
+        assertTrue(html.contains("<option value=\"" + homeId + "\" selected=\"selected\">Home &amp; Garden</option>"));
+        assertFalse(cache.render(null).contains("selected"));
+    }
+
+    @Test
+    void shouldRenderAgainOnlyAfterCategoriesChange() {
+        when(resourceVersionService.categoriesEtag()).thenReturn("v1", "v1", "v2");
+        CategoryOptionsCache cache = new CategoryOptionsCache(categoryService, resourceVersionService, templateEngine, true);
+
+        cache.render(null);
+        cache.render(workId);
+        verify(categoryService, times(1)).getCategories();
+
+        when(categoryService.getCategories()).thenReturn(List.of(category(workId, "Office")));
+        String html = cache.render(null);
+
+        assertTrue(html.contains(">Office<"));
+        assertFalse(html.contains("Home"));
+        verify(categoryService, times(2)).getCategories();
+    }
+
+    @Test
+    void shouldRenderEveryTimeWithoutTemplateCache() {
+        when(resourceVersionService.categoriesEtag()).thenReturn("v1");
+        CategoryOptionsCache cache = new CategoryOptionsCache(categoryService, resourceVersionService, templateEngine, false);
+
+        cache.render(null);
+        cache.render(null);
+
+        verify(categoryService, times(2)).getCategories();
+    }
+}
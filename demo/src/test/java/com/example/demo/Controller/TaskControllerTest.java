@@ -1,35 +1,62 @@
 package com.example.demo.Controller;
 
 import com.example.demo.controller.api.TaskController;
+import com.example.demo.domain.dto.Task.CsvImportError;
+import com.example.demo.domain.dto.Task.CsvImportResult;
+import com.example.demo.domain.dto.Task.TaskBatchItemResult;
+import com.example.demo.domain.dto.Task.TaskBatchResult;
+import com.example.demo.domain.dto.Task.TaskBatchStatusDTO;
+import com.example.demo.domain.dto.Task.TaskCursorPage;
+import com.example.demo.domain.dto.Task.TaskExportJobDTO;
 import com.example.demo.domain.dto.Task.TaskReceiveDTO;
 import com.example.demo.domain.dto.Task.TaskResponseDTO;
 import com.example.demo.domain.dto.Task.TasksDashboard;
+import com.example.demo.domain.enums.ExportStatus;
 import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.enums.TaskSort;
+import com.example.demo.domain.exceptions.BatchTooLargeException;
+import com.example.demo.domain.exceptions.ExportNotReadyException;
 import com.example.demo.domain.exceptions.GlobalExceptionHandler;
+import com.example.demo.domain.exceptions.InvalidCsvException;
+import com.example.demo.domain.exceptions.InvalidCursorException;
 import com.example.demo.domain.exceptions.NotFoundException;
 import com.example.demo.security.SecurityConfig;
 import com.example.demo.security.service.CustomUserDetailsService;
+import com.example.demo.service.ResourceVersionService;
+import com.example.demo.service.TaskBatchService;
+import com.example.demo.service.TaskCsvImportService;
+import com.example.demo.service.TaskExportService;
 import com.example.demo.service.TaskService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -44,9 +71,21 @@ class TaskControllerTest {
     @MockitoBean
     private TaskService taskService;
 
+    @MockitoBean
+    private TaskBatchService taskBatchService;
+
+    @MockitoBean
+    private TaskCsvImportService taskCsvImportService;
+
     @MockitoBean
     private CustomUserDetailsService customUserDetailsService;
 
+    @MockitoBean
+    private ResourceVersionService resourceVersionService;
+
+    @MockitoBean
+    private TaskExportService taskExportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -81,7 +120,7 @@ class TaskControllerTest {
                 new PageImpl<>(List.of(sampleResponse()));
 
         when(taskService.getTasks(
-                any(), any(), any(), any(), any(Pageable.class)
+                any(), any(), any(), any(), any(), any(), any(Pageable.class)
         )).thenReturn(page);
 
         mockMvc.perform(get("/api/tasks"))
@@ -89,6 +128,192 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.content[0].title").value("Test task"));
     }
 
+    @Test
+    @WithMockUser
+    void shouldPassWhitelistedSortToService() throws Exception {
+        when(taskService.getTasks(any(), any(), any(), any(), eq(TaskSort.DUE_DATE), eq(Sort.Direction.ASC), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleResponse())));
+
+        mockMvc.perform(get("/api/tasks").param("sortBy", "DUE_DATE").param("direction", "ASC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Test task"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturn400WhenSortIsNotWhitelisted() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("sortBy", "description"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasks(any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldTranslateLegacySortParameter() throws Exception {
+        when(taskService.getTasks(any(), any(), any(), any(), eq(TaskSort.TITLE), eq(Sort.Direction.ASC), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleResponse())));
+
+        mockMvc.perform(get("/api/tasks").param("sort", "title,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Test task"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturn400WhenLegacySortIsNotSupported() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("sort", "description,asc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks").param("sort", "title,asc").param("sort", "dueDate,desc"))
+                .andExpect(status().isBadRequest());
+
+        verify(taskService, never()).getTasks(any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldMarkTitleFilterAsDeprecated() throws Exception {
+        when(taskService.getTasks(eq("report"), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleResponse())));
+
+        mockMvc.perform(get("/api/tasks").param("title", "report"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Deprecation", "true"))
+                .andExpect(header().string(HttpHeaders.LINK, "</api/tasks/search>; rel=\"successor-version\""));
+
+        when(taskService.getTasks(isNull(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleResponse())));
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Deprecation"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturn304WhenTasksAreUnchanged() throws Exception {
+        when(resourceVersionService.currentTasksEtag()).thenReturn("W/\"tasks-1\"");
+
+        mockMvc.perform(get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, "W/\"tasks-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(taskService, never()).getTasks(any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturnTasksWithEtagWhenVersionChanged() throws Exception {
+        when(resourceVersionService.currentTasksEtag()).thenReturn("W/\"tasks-2\"");
+        when(taskService.getTasks(any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(sampleResponse())));
+
+        mockMvc.perform(get("/api/tasks").header(HttpHeaders.IF_NONE_MATCH, "W/\"tasks-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"tasks-2\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturnTasksByCursor() throws Exception {
+        when(taskService.getTasksAfter(isNull(), isNull(), isNull(), isNull(), eq(""), eq(10)))
+                .thenReturn(new TaskCursorPage(List.of(sampleResponse()), "next-token"));
+
+        mockMvc.perform(get("/api/tasks").param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Test task"))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturn400WhenCursorIsInvalid() throws Exception {
+        when(taskService.getTasksAfter(any(), any(), any(), any(), eq("broken"), anyInt()))
+                .thenThrow(new InvalidCursorException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/tasks").param("cursor", "broken"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void shouldSearchTasks() throws Exception {
+        when(taskService.searchTasks("test", 20)).thenReturn(List.of(sampleResponse()));
+
+        mockMvc.perform(get("/api/tasks/search").param("q", "test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Test task"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldCreateTasksInBatch() throws Exception {
+        TaskResponseDTO created = sampleResponse();
+        TaskBatchResult result = TaskBatchResult.of(List.of(
+                TaskBatchItemResult.success(0, created.getId(), 201, created),
+                TaskBatchItemResult.failure(1, null, 400, "Title must not be blank")
+        ));
+
+        when(taskBatchService.createTasks(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(sampleRequest(), new TaskReceiveDTO()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].httpStatus").value(201))
+                .andExpect(jsonPath("$.items[0].task.title").value("Test task"))
+                .andExpect(jsonPath("$.items[1].error").value("Title must not be blank"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldUpdateStatusesInBatch() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(taskBatchService.updateStatuses(anyList())).thenReturn(TaskBatchResult.of(List.of(
+                TaskBatchItemResult.failure(0, id, 404, "Chosen task not found")
+        )));
+
+        mockMvc.perform(put("/api/tasks/batch/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new TaskBatchStatusDTO(id, Status.DONE)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.items[0].httpStatus").value(404));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldDeleteTasksInBatch() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(taskBatchService.deleteTasks(List.of(id))).thenReturn(TaskBatchResult.of(List.of(
+                TaskBatchItemResult.success(0, id, 204, null)
+        )));
+
+        mockMvc.perform(delete("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(id))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.items[0].httpStatus").value(204));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturn413WhenBatchTooLarge() throws Exception {
+        when(taskBatchService.deleteTasks(anyList())).thenThrow(new BatchTooLargeException("Batch may contain at most 1000 items"));
+
+        mockMvc.perform(delete("/api/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
     @Test
     @WithMockUser
     void shouldReturnTaskById() throws Exception {
@@ -160,18 +385,96 @@ class TaskControllerTest {
                 .andExpect(status().isNoContent());
     }
 
+    @Test
+    @WithMockUser
+    void shouldStartExportJob() throws Exception {
+        TaskExportJobDTO job = new TaskExportJobDTO();
+        job.setId(UUID.randomUUID());
+        job.setStatus(ExportStatus.QUEUED);
+
+        when(taskExportService.startExport()).thenReturn(job);
+
+        mockMvc.perform(post("/api/tasks/export/jobs"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/api/tasks/export/jobs/" + job.getId()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldDownloadFinishedExport(@TempDir Path dir) throws Exception {
+        UUID id = UUID.randomUUID();
+        Path file = Files.writeString(dir.resolve(id + ".csv"), "a,b,c\n");
+
+        when(taskExportService.getExportFile(id)).thenReturn(file);
+
+        mockMvc.perform(get("/api/tasks/export/jobs/{id}/file", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks.csv"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 6))
+                .andExpect(content().string("a,b,c\n"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturn409WhenExportIsNotFinished() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        when(taskExportService.getExportFile(id)).thenThrow(new ExportNotReadyException("Export is running"));
+
+        mockMvc.perform(get("/api/tasks/export/jobs/{id}/file", id))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     @WithMockUser
     void shouldExportCsv() throws Exception {
-        when(taskService.exportTasksToCsv())
-                .thenReturn("a,b,c".getBytes());
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("a,b,c".getBytes());
+            return null;
+        }).when(taskService).exportTasksToCsv(any(OutputStream.class));
 
-        mockMvc.perform(get("/api/tasks/export/csv"))
+        MvcResult result = mockMvc.perform(get("/api/tasks/export/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(header().string(
                         HttpHeaders.CONTENT_DISPOSITION,
                         "attachment; filename=tasks.csv"
-                ));
+                ))
+                .andExpect(content().string("a,b,c"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldImportCsv() throws Exception {
+        CsvImportResult result = new CsvImportResult();
+        result.setImported(1);
+        result.setFailed(1);
+        result.getErrors().add(new CsvImportError(3, "Title must not be blank"));
+
+        when(taskCsvImportService.importTasks(any())).thenReturn(result);
+
+        mockMvc.perform(multipart("/api/tasks/import/csv")
+                        .file(new MockMultipartFile("file", "tasks.csv", "text/csv", "Title,Status,Due Date".getBytes())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("Title must not be blank"));
+    }
+
+    @Test
+    @WithMockUser
+    void shouldReturn400WhenCsvIsMalformed() throws Exception {
+        when(taskCsvImportService.importTasks(any())).thenThrow(new InvalidCsvException("Missing column: title"));
+
+        mockMvc.perform(multipart("/api/tasks/import/csv")
+                        .file(new MockMultipartFile("file", "tasks.csv", "text/csv", "a,b".getBytes())))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Missing column: title"));
     }
 
     @Test
@@ -195,6 +498,17 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$.completedProcent").value(0.0));
     }
 
+    @Test
+    @WithMockUser
+    void shouldReturn304WhenDashboardIsUnchanged() throws Exception {
+        when(resourceVersionService.currentDashboardEtag()).thenReturn("W/\"dashboard-1\"");
+
+        mockMvc.perform(get("/api/tasks/dashboard").header(HttpHeaders.IF_NONE_MATCH, "W/\"dashboard-1\""))
+                .andExpect(status().isNotModified());
+
+        verify(taskService, never()).getTasksDashboard();
+    }
+
     @Test
     void shouldReturn401WhenNotAuthenticated() throws Exception {
         mockMvc.perform(get("/api/tasks"))
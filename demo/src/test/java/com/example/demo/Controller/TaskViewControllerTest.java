@@ -1,10 +1,12 @@
 package com.example.demo.Controller;
 
 import com.example.demo.controller.view.TaskViewController;
+import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.domain.dto.Task.TaskCursorPage;
 import com.example.demo.domain.dto.Task.TaskReceiveDTO;
 import com.example.demo.domain.dto.Task.TaskResponseDTO;
 import com.example.demo.domain.enums.Status;
-import com.example.demo.service.CategoryService;
+import com.example.demo.controller.view.CategoryOptionsCache;
 import com.example.demo.service.TaskService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +16,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 
 
@@ -46,32 +50,74 @@ class TaskViewControllerTest {
     private TaskService taskService;
 
     @MockitoBean
-    private CategoryService categoryService;
+    private CategoryOptionsCache categoryOptionsCache;
 
     @Test
     void shouldDisplayTasksPage() throws Exception {
 
-        when(taskService.getTasks(
-                isNull(), isNull(), isNull(), isNull(), eq(Pageable.unpaged())
-        )).thenReturn(Page.empty());
+        when(taskService.getTasksAfter(
+                isNull(), isNull(), isNull(), isNull(), isNull(), eq(20)
+        )).thenReturn(new TaskCursorPage(List.of(), null));
 
 
-        when(categoryService.getCategories()).thenReturn(List.of());
+        when(categoryOptionsCache.render(any())).thenReturn("");
 
         mockMvc.perform(get("/tasks"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("tasks"))
                 .andExpect(model().attributeExists("tasks"))
-                .andExpect(model().attributeExists("categories"))
+                .andExpect(model().attribute("nextCursor", nullValue()))
+                .andExpect(model().attributeExists("categoryOptions"))
                 .andExpect(model().attributeExists("statuses"))
                 .andExpect(model().attribute("selectedStatus", nullValue()))
                 .andExpect(model().attribute("selectedCategory", nullValue()));
     }
 
+    @Test
+    void shouldRenderLoadMoreButtonWhenMoreTasksExist() throws Exception {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setId(UUID.randomUUID());
+        task.setTitle("First task");
+        task.setStatus(Status.TODO);
+        task.setDueDate(LocalDateTime.now());
+
+        when(taskService.getTasksAfter(
+                isNull(), eq(Status.TODO), isNull(), isNull(), isNull(), eq(20)
+        )).thenReturn(new TaskCursorPage(List.of(task), "next-token"));
+        when(categoryOptionsCache.render(any())).thenReturn("");
+
+        mockMvc.perform(get("/tasks").param("status", "TODO"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("First task")))
+                .andExpect(content().string(containsString("/tasks/more?cursor=next-token&amp;status=TODO")));
+    }
+
+    @Test
+    void shouldReturnNextSliceAsFragment() throws Exception {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setId(UUID.randomUUID());
+        task.setTitle("Later task");
+        task.setStatus(Status.DONE);
+        task.setDueDate(LocalDateTime.now());
+
+        when(taskService.getTasksAfter(
+                isNull(), isNull(), isNull(), isNull(), eq("token"), eq(20)
+        )).thenReturn(new TaskCursorPage(List.of(task), null));
+
+        mockMvc.perform(get("/tasks/more").param("cursor", "token"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("task-items :: items"))
+                .andExpect(content().string(containsString("Later task")))
+                .andExpect(content().string(not(containsString("<html"))))
+                .andExpect(content().string(not(containsString("Load more"))));
+
+        verify(categoryOptionsCache, never()).render(any());
+    }
+
     @Test
     void shouldDisplayAddTaskForm() throws Exception {
 
-        when(categoryService.getCategories()).thenReturn(List.of());
+        when(categoryOptionsCache.render(any())).thenReturn("");
 
         mockMvc.perform(get("/tasks/add"))
                 .andExpect(status().isOk())
@@ -98,7 +144,7 @@ class TaskViewControllerTest {
     @Test
     void shouldReturnFormWhenValidationErrorsOccur() throws Exception {
 
-        when(categoryService.getCategories()).thenReturn(List.of());
+        when(categoryOptionsCache.render(any())).thenReturn("");
 
         mockMvc.perform(post("/tasks/add")
                         .with(csrf())
@@ -126,7 +172,7 @@ class TaskViewControllerTest {
         dto.setDueDate(LocalDateTime.now().plusDays(1));
 
         when(taskService.getTaskById(id)).thenReturn(dto);
-        when(categoryService.getCategories()).thenReturn(List.of());
+        when(categoryOptionsCache.render(any())).thenReturn("");
 
         mockMvc.perform(get("/tasks/edit/{id}", id))
                 .andExpect(status().isOk())
@@ -135,6 +181,29 @@ class TaskViewControllerTest {
                 .andExpect(model().attribute("taskId", id));
     }
 
+    @Test
+    void shouldSelectTaskCategoryInEditForm() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID categoryId = UUID.randomUUID();
+
+        TaskResponseDTO dto = new TaskResponseDTO();
+        dto.setTitle("Task");
+        dto.setDescription("Desc");
+        dto.setStatus(Status.TODO);
+        dto.setDueDate(LocalDateTime.now().plusDays(1));
+        CategoryDTO category = new CategoryDTO();
+        category.setId(categoryId);
+        dto.setCategory(category);
+
+        when(taskService.getTaskById(id)).thenReturn(dto);
+        when(categoryOptionsCache.render(categoryId))
+                .thenReturn("<option value=\"" + categoryId + "\" selected=\"selected\">Work</option>");
+
+        mockMvc.perform(get("/tasks/edit/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<option value=\"" + categoryId + "\" selected=\"selected\">Work</option>")));
+    }
+
     @Test
     void shouldUpdateTaskAndRedirect() throws Exception {
 
@@ -157,7 +226,7 @@ class TaskViewControllerTest {
 
         UUID id = UUID.randomUUID();
 
-        when(categoryService.getCategories()).thenReturn(List.of());
+        when(categoryOptionsCache.render(any())).thenReturn("");
 
         mockMvc.perform(post("/tasks/edit/{id}", id)
                         .with(csrf())
@@ -0,0 +1,73 @@
+package com.example.demo.Domain;
+
+import com.example.demo.domain.id.TimeOrderedUuid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    void shouldSetVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuid.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        // licznik moze pozyczyc kolejna milisekunde, stad +1
+        assertTrue(TimeOrderedUuid.timestamp(uuid) >= before);
+        assertTrue(TimeOrderedUuid.timestamp(uuid) <= after + 1);
+    }
+
+    @Test
+    void shouldGrowWithinTheSameMillisecond() {
+        List<UUID> generated = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            generated.add(TimeOrderedUuid.next());
+        }
+
+        // kolejnosc tekstowa = kolejnosc bajtow, tak jak porownuje je baza
+        List<String> texts = generated.stream().map(UUID::toString).toList();
+        List<String> sorted = new ArrayList<>(texts);
+        Collections.sort(sorted);
+
+        assertEquals(sorted, texts);
+        assertEquals(10_000, Set.copyOf(generated).size());
+        assertTrue(generated.stream().allMatch(uuid -> uuid.version() == 7));
+    }
+
+    @Test
+    void shouldStayUniqueAcrossThreads() throws Exception {
+        Set<UUID> generated = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        generated.add(TimeOrderedUuid.next());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(40_000, generated.size());
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.demo.Load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// test obciazeniowy calego stosu HTTP: aplikacja na losowym porcie, baza H2 zasilana przez API, klienci w zamknietej petli
+// domyslnie pomijany, uruchamiany recznie:
+// mvn test -Dtest=ApiLoadTest -Dloadtest=true -Dloadtest.clients=2000 -Dloadtest.duration=PT60S
+// -Dloadtest.mix=list=50,create=10,status=25,dashboard=10,export=5 ustawia udzial endpointow, wyniki .hgrm w target/loadtest
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                // rejestracja i logowanie kilkudziesieciu uzytkownikow bez sekund bcrypta na kazdego
+                "app.security.password.bcrypt-strength=4",
+                // kazde zapytanie na stdout mierzyloby konsole, a nie aplikacje
+                "spring.jpa.show-sql=false"
+        }
+)
+class ApiLoadTest {
+    private static final String PASSWORD = "load-test-password";
+    private static final int SEED_BATCH = 500;
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+
+    private final int clients = Integer.getInteger("loadtest.clients", 1000);
+    private final int users = Integer.getInteger("loadtest.users", 50);
+    private final int tasksPerUser = Integer.getInteger("loadtest.tasks-per-user", 200);
+    private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+    private final String mix = System.getProperty("loadtest.mix", "list=50,create=10,status=25,dashboard=10,export=5");
+    private final Path reportDir = Path.of(System.getProperty("loadtest.report-dir", "target/loadtest"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpClient httpClient;
+    private final List<UUID> categoryIds = new ArrayList<>();
+
+    enum Endpoint {
+        LIST("GET /api/tasks"),
+        CREATE("POST /api/tasks"),
+        STATUS("PUT /api/tasks/{id}/{newStatus}"),
+        DASHBOARD("GET /api/tasks/dashboard"),
+        EXPORT("GET /api/tasks/export/csv");
+
+        private final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    // zalogowany uzytkownik: ciasteczko sesji i id jego zadan do zmian statusu
+    private record Session(String cookie, List<UUID> taskIds) {
+    }
+
+    @Test
+    void shouldReportThroughputAndLatencyPerEndpoint() throws Exception {
+        Map<Endpoint, Integer> weights = parseMix(mix);
+        // klienci to lancuchy zadan asynchronicznych, wiec tysiace klientow nie potrzebuja tysiecy watkow
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        try {
+            List<Session> sessions = seed();
+            Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+            for (Endpoint endpoint : weights.keySet()) {
+                stats.put(endpoint, new EndpointStats());
+            }
+
+            long measureFrom = System.nanoTime() + warmup.toNanos();
+            long stopAt = measureFrom + duration.toNanos();
+            CountDownLatch finished = new CountDownLatch(clients);
+
+            for (int client = 0; client < clients; client++) {
+                Session session = sessions.get(client % sessions.size());
+                executor.execute(() -> next(session, weights, stats, measureFrom, stopAt, finished));
+            }
+
+            assertTrue(finished.await(duration.plus(warmup).plusMinutes(2).toMillis(), TimeUnit.MILLISECONDS),
+                    "clients did not finish");
+
+            report(stats);
+            long ok = stats.values().stream().mapToLong(s -> s.statusClasses.get(2)).sum();
+            assertTrue(ok > 0, "no request succeeded");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // jeden krok klienta: zadanie, pomiar, od razu nastepne zadanie az do konca czasu
+    private void next(Session session, Map<Endpoint, Integer> weights, Map<Endpoint, EndpointStats> stats,
+                      long measureFrom, long stopAt, CountDownLatch finished) {
+        if (System.nanoTime() >= stopAt) {
+            finished.countDown();
+            return;
+        }
+
+        Endpoint endpoint = pick(weights);
+        HttpRequest request = request(endpoint, session);
+        long start = System.nanoTime();
+
+        // wynik w watku puli, a nie w watku, ktory wyslal zadanie - bez rosnacego stosu przy bledach polaczenia
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenCompleteAsync((response, error) -> {
+                    // wyniki z rozgrzewki nie trafiaja do histogramow
+                    if (start >= measureFrom && start < stopAt) {
+                        stats.get(endpoint).record(System.nanoTime() - start, response, error);
+                    }
+                    next(session, weights, stats, measureFrom, stopAt, finished);
+                }, httpClient.executor().orElseThrow());
+    }
+
+    private HttpRequest request(Endpoint endpoint, Session session) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        return switch (endpoint) {
+            case LIST -> get(session, "/api/tasks?page=" + random.nextInt(5) + "&size=20");
+            case CREATE -> json(session, "POST", "/api/tasks", newTask("Load " + random.nextInt(1_000_000)));
+            case STATUS -> {
+                UUID id = session.taskIds().get(random.nextInt(session.taskIds().size()));
+                yield builder(session, "/api/tasks/" + id + "/" + STATUSES[random.nextInt(STATUSES.length)])
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+            case DASHBOARD -> get(session, "/api/tasks/dashboard");
+            case EXPORT -> get(session, "/api/tasks/export/csv");
+        };
+    }
+
+    // uzytkownicy i zadania zakladane przez API, zeby liczniki, indeks wyszukiwania i przypomnienia byly spojne z baza
+    private List<Session> seed() throws IOException, InterruptedException {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        List<Session> sessions = new ArrayList<>();
+
+        for (int i = 0; i < users; i++) {
+            String username = "load-" + runId + "-" + i;
+            send(builder(null, "/api/auth/register")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of("username", username, "password", PASSWORD))))
+                    .build(), 201);
+
+            String cookie = login(username, PASSWORD);
+            Session session = new Session(cookie, new ArrayList<>());
+
+            if (i == 0) {
+                JsonNode categories = objectMapper.readTree(send(get(session, "/api/categories"), 200));
+                categories.forEach(category -> categoryIds.add(UUID.fromString(category.get("id").asText())));
+            }
+
+            for (int created = 0; created < tasksPerUser; created += SEED_BATCH) {
+                List<Map<String, Object>> batch = new ArrayList<>();
+                for (int j = created; j < Math.min(tasksPerUser, created + SEED_BATCH); j++) {
+                    batch.add(newTask("Seed " + j));
+                }
+                JsonNode result = objectMapper.readTree(send(json(session, "POST", "/api/tasks/batch", batch), 200));
+                for (JsonNode item : result.get("items")) {
+                    if (item.get("httpStatus").asInt() == 201) {
+                        session.taskIds().add(UUID.fromString(item.get("id").asText()));
+                    }
+                }
+            }
+
+            assertFalse(session.taskIds().isEmpty(), "seeding created no tasks");
+            sessions.add(session);
+        }
+
+        System.out.printf(Locale.ROOT, "Seeded %d users with %d tasks each, %d clients%n", users, tasksPerUser, clients);
+        return sessions;
+    }
+
+    private String login(String username, String password) throws IOException, InterruptedException {
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = httpClient.send(builder(null, "/login")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.discarding());
+
+        String location = response.headers().firstValue("Location").orElse("");
+        assertFalse(location.contains("error"), "login failed for " + username);
+
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                .map(cookie -> cookie.substring(0, cookie.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("no session cookie for " + username));
+    }
+
+    private String send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(expectedStatus, response.statusCode(), () -> request.uri() + ": " + response.body());
+        return response.body();
+    }
+
+    private Map<String, Object> newTask(String title) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> task = new LinkedHashMap<>();
+        task.put("title", title);
+        task.put("description", "Generated by load test");
+        task.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+        task.put("dueDate", LocalDateTime.now().plusDays(random.nextInt(1, 60)).withNano(0).toString());
+        if (!categoryIds.isEmpty() && random.nextBoolean()) {
+            task.put("categoryId", categoryIds.get(random.nextInt(categoryIds.size())));
+        }
+        return task;
+    }
+
+    private HttpRequest.Builder builder(Session session, String path) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30));
+        if (session != null) {
+            builder.header("Cookie", session.cookie());
+        }
+        return builder;
+    }
+
+    private HttpRequest get(Session session, String path) {
+        return builder(session, path).GET().build();
+    }
+
+    private HttpRequest json(Session session, String method, String path, Object body) {
+        try {
+            return builder(session, path)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split("=");
+            int weight = Integer.parseInt(entry[1].trim());
+            if (weight > 0) {
+                weights.put(Endpoint.valueOf(entry[0].trim().toUpperCase(Locale.ROOT)), weight);
+            }
+        }
+
+        assertFalse(weights.isEmpty(), "empty loadtest.mix");
+        return weights;
+    }
+
+    private static Endpoint pick(Map<Endpoint, Integer> weights) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+
+        for (Map.Entry<Endpoint, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("weights changed");
+    }
+
+    private void report(Map<Endpoint, EndpointStats> stats) throws IOException {
+        Files.createDirectories(reportDir);
+        double seconds = duration.toNanos() / 1e9;
+
+        PrintStream out = System.out;
+        out.printf(Locale.ROOT, "%nLoad test: %d clients, %s measured after %s warmup%n", clients, duration, warmup);
+        out.printf(Locale.ROOT, "%-34s %9s %9s %8s %6s %6s %6s %8s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "req/s", "2xx", "4xx", "5xx", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpointStats = entry.getValue();
+            Histogram histogram = endpointStats.latency;
+
+            out.printf(Locale.ROOT, "%-34s %9d %9.1f %8d %6d %6d %6d %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                    entry.getKey().label,
+                    histogram.getTotalCount() + endpointStats.errors.get(),
+                    histogram.getTotalCount() / seconds,
+                    endpointStats.statusClasses.get(2),
+                    endpointStats.statusClasses.get(4),
+                    endpointStats.statusClasses.get(5),
+                    endpointStats.errors.get(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+
+            // pelny rozklad w formacie HdrHistogram, do wykresu np. w HistogramLogAnalyzer
+            Path file = reportDir.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+
+        out.println("Latency distributions (ms) written to " + reportDir.toAbsolutePath());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    // opoznienia w mikrosekundach, od 1 us do minuty z dokladnoscia 3 cyfr
+    private static class EndpointStats {
+        private final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        // liczba odpowiedzi wedlug pierwszej cyfry statusu
+        private final AtomicLongArray statusClasses = new AtomicLongArray(6);
+        private final AtomicLong errors = new AtomicLong();
+
+        private void record(long nanos, HttpResponse<?> response, Throwable error) {
+            if (error != null) {
+                errors.incrementAndGet();
+                return;
+            }
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latency.getHighestTrackableValue()));
+            statusClasses.incrementAndGet(Math.min(5, response.statusCode() / 100));
+        }
+    }
+}
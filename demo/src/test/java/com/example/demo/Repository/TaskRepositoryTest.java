@@ -1,5 +1,8 @@
 package com.example.demo.Repository;
 
+import com.example.demo.domain.dto.Task.TaskCsvRow;
+import com.example.demo.domain.dto.Task.TaskCursor;
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
 import com.example.demo.domain.entity.Category;
 import com.example.demo.domain.entity.Task;
 import com.example.demo.domain.entity.User;
@@ -7,20 +10,31 @@ import com.example.demo.domain.enums.Status;
 import com.example.demo.repository.CategoryRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @Transactional
 class TaskRepositoryTest {
 
@@ -33,6 +47,37 @@ class TaskRepositoryTest {
     @Autowired
     CategoryRepository categoryRepository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    // SQL wygenerowany przez Hibernate, zeby EXPLAIN dotyczyl zapytan, ktore naprawde ida do bazy
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration
+    static class StatementRecorderConfig {
+        @Bean
+        HibernatePropertiesCustomizer statementRecorder() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    // plan ostatniego zapytania wyslanego przez Hibernate; H2 wybiera indeks przy przygotowaniu, wiec parametry moga byc puste
+    private String explainGenerated(Runnable query) {
+        taskRepository.flush();
+        STATEMENTS.clear();
+        query.run();
+
+        String sql = STATEMENTS.get(STATEMENTS.size() - 1);
+        Object[] args = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args).toUpperCase();
+    }
+
     private User saveUser() {
         User user = new User();
         user.setUsername("user_" + UUID.randomUUID());
@@ -69,6 +114,17 @@ class TaskRepositoryTest {
         assertThat(task.getId()).isNotNull();
     }
 
+    @Test
+    void shouldGenerateTimeOrderedIds() {
+        User user = saveUser();
+        Category category = saveCategory();
+        Task first = saveTask(user, category, Status.TODO, "Task 1");
+        Task second = saveTask(user, category, Status.TODO, "Task 2");
+
+        assertThat(List.of(user.getId(), category.getId(), first.getId())).allMatch(id -> id.version() == 7);
+        assertThat(second.getId().toString()).isGreaterThan(first.getId().toString());
+    }
+
     @Test
     void shouldFindTaskById() {
         User user = saveUser();
@@ -89,6 +145,24 @@ class TaskRepositoryTest {
         assertThat(taskRepository.findById(task.getId())).isEmpty();
     }
 
+    @Test
+    void shouldFindAndDeleteOwnedTasksInBatch() {
+        User owner = saveUser();
+        User stranger = saveUser();
+        Task first = saveTask(owner, null, Status.TODO, "First");
+        Task second = saveTask(owner, null, Status.TODO, "Second");
+        Task foreign = saveTask(stranger, null, Status.TODO, "Foreign");
+
+        List<UUID> ids = List.of(first.getId(), second.getId(), foreign.getId());
+
+        assertThat(taskRepository.findOwnedForUpdateIn(ids, owner.getId()))
+                .extracting(Task::getId)
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+
+        assertThat(taskRepository.deleteOwnedIn(ids, owner.getId())).isEqualTo(2);
+        assertThat(taskRepository.findById(foreign.getId())).isPresent();
+    }
+
     @Test
     void shouldUpdateTaskStatus() {
         User user = saveUser();
@@ -101,6 +175,17 @@ class TaskRepositoryTest {
         assertThat(updated.getStatus()).isEqualTo(Status.DONE);
     }
 
+    @Test
+    void shouldLockOnlyOwnedTask() {
+        User owner = saveUser();
+        User other = saveUser();
+        Task task = saveTask(owner, null, Status.TODO, "Owned");
+
+        assertThat(taskRepository.findOwnedForUpdate(task.getId(), owner.getId())).isPresent();
+        assertThat(taskRepository.findOwnedForUpdate(task.getId(), other.getId())).isEmpty();
+        assertThat(taskRepository.findOwnedForUpdate(UUID.randomUUID(), owner.getId())).isEmpty();
+    }
+
     @Test
     void shouldFindTasksByUserId() {
         User user = saveUser();
@@ -121,6 +206,24 @@ class TaskRepositoryTest {
         assertThat(tasks).isEmpty();
     }
 
+    @Test
+    void shouldStreamCsvRowsWithCategoryName() {
+        User user = saveUser();
+        Category category = saveCategory();
+        saveTask(user, category, Status.TODO, "A");
+        saveTask(user, null, Status.DONE, "B");
+
+        List<TaskCsvRow> rows;
+        try (Stream<TaskCsvRow> stream = taskRepository.streamCsvRowsByUserId(user.getId())) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows)
+                .extracting(TaskCsvRow::getCategoryName)
+                .containsExactlyInAnyOrder("Work", null);
+    }
+
     @Test
     void shouldClearCategoryFromTasks() {
         User user = saveUser();
@@ -139,17 +242,19 @@ class TaskRepositoryTest {
         saveTask(user, null, Status.TODO, "Important task");
         saveTask(user, null, Status.TODO, "Other");
 
-        Page<Task> page = taskRepository.findFiltered(
+        List<TaskResponseDTO> tasks = taskRepository.findFilteredAfter(
                 user.getId(),
                 "important",
                 null,
                 null,
                 null,
                 null,
-                PageRequest.of(0, 10)
+                TaskCursor.START.getCreatedAt(),
+                TaskCursor.START.getId(),
+                Limit.of(10)
         );
 
-        assertThat(page.getContent()).hasSize(1);
+        assertThat(tasks).hasSize(1);
     }
 
     @Test
@@ -158,18 +263,20 @@ class TaskRepositoryTest {
         saveTask(user, null, Status.TODO, "A");
         saveTask(user, null, Status.DONE, "B");
 
-        Page<Task> page = taskRepository.findFiltered(
+        List<TaskResponseDTO> tasks = taskRepository.findFilteredAfter(
                 user.getId(),
                 null,
                 Status.DONE,
                 null,
                 null,
                 null,
-                PageRequest.of(0, 10)
+                TaskCursor.START.getCreatedAt(),
+                TaskCursor.START.getId(),
+                Limit.of(10)
         );
 
-        assertThat(page.getContent()).hasSize(1);
-        assertThat(page.getContent().get(0).getStatus()).isEqualTo(Status.DONE);
+        assertThat(tasks).hasSize(1);
+        assertThat(tasks.get(0).getStatus()).isEqualTo(Status.DONE);
     }
 
     @Test
@@ -179,17 +286,19 @@ class TaskRepositoryTest {
         saveTask(user, category, Status.TODO, "A");
         saveTask(user, null, Status.TODO, "B");
 
-        Page<Task> page = taskRepository.findFiltered(
+        List<TaskResponseDTO> tasks = taskRepository.findFilteredAfter(
                 user.getId(),
                 null,
                 null,
                 category.getId(),
                 null,
                 null,
-                PageRequest.of(0, 10)
+                TaskCursor.START.getCreatedAt(),
+                TaskCursor.START.getId(),
+                Limit.of(10)
         );
 
-        assertThat(page.getContent()).hasSize(1);
+        assertThat(tasks).hasSize(1);
     }
 
     @Test
@@ -199,16 +308,100 @@ class TaskRepositoryTest {
         task.setDueDate(LocalDateTime.now().minusDays(1));
         taskRepository.save(task);
 
-        Page<Task> page = taskRepository.findFiltered(
+        List<TaskResponseDTO> tasks = taskRepository.findFilteredAfter(
                 user.getId(),
                 null,
                 null,
                 null,
                 LocalDateTime.now(),
                 null,
-                PageRequest.of(0, 10)
+                TaskCursor.START.getCreatedAt(),
+                TaskCursor.START.getId(),
+                Limit.of(10)
+        );
+
+        assertThat(tasks).hasSize(1);
+    }
+
+    private Statistics clearedStatistics() {
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    void shouldWalkAllTasksWithKeysetPagination() {
+        User user = saveUser();
+        for (int i = 0; i < 5; i++) {
+            saveTask(user, null, Status.TODO, "Task " + i);
+        }
+        taskRepository.flush();
+
+        List<UUID> seen = new ArrayList<>();
+        LocalDateTime cursorCreatedAt = TaskCursor.START.getCreatedAt();
+        UUID cursorId = TaskCursor.START.getId();
+
+        List<TaskResponseDTO> slice;
+        do {
+            slice = taskRepository.findFilteredAfter(
+                    user.getId(), null, null, null, null, null,
+                    cursorCreatedAt, cursorId, Limit.of(2)
+            );
+            slice.forEach(t -> seen.add(t.getId()));
+            if (!slice.isEmpty()) {
+                TaskResponseDTO last = slice.get(slice.size() - 1);
+                cursorCreatedAt = last.getCreatedAt();
+                cursorId = last.getId();
+            }
+        } while (!slice.isEmpty());
+
+        assertThat(seen).hasSize(5).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shouldReadKeysetSliceWithCategoriesInOneQuery() {
+        User user = saveUser();
+        Category category = saveCategory();
+        for (int i = 0; i < 20; i++) {
+            saveTask(user, i % 2 == 0 ? category : null, Status.TODO, "Task " + i);
+        }
+
+        Statistics statistics = clearedStatistics();
+
+        List<TaskResponseDTO> slice = taskRepository.findFilteredAfter(
+                user.getId(), null, null, null, null, null,
+                TaskCursor.START.getCreatedAt(), TaskCursor.START.getId(), Limit.of(11)
         );
 
-        assertThat(page.getContent()).hasSize(1);
+        assertThat(slice).hasSize(11);
+        assertThat(slice).filteredOn(task -> task.getCategory() != null)
+                .isNotEmpty()
+                .allMatch(task -> task.getCategory().getName().equals("Work"));
+
+        // kategoria z LEFT JOIN w tym samym zapytaniu, bez encji i bez N+1
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldUseUserCreatedIndexForKeysetQuery() {
+        String plan = explainGenerated(() -> taskRepository.findFilteredAfter(UUID.randomUUID(), "work", Status.TODO,
+                UUID.randomUUID(), LocalDateTime.now(), null,
+                TaskCursor.START.getCreatedAt(), TaskCursor.START.getId(), Limit.of(10)));
+
+        assertThat(plan).contains("IDX_TASK_USER_CREATED").contains("/* INDEX SORTED */");
+        // filtry "(:x IS NULL OR ...)" sa sprawdzane na wierszach z zakresu kursora - indeksy filtrow sluza TaskPageDao
+        assertThat(plan).doesNotContain("IDX_TASK_USER_STATUS_DUE").doesNotContain("IDX_TASK_USER_CATEGORY");
+    }
+
+    @Test
+    void shouldUseCategoryIndexWhenClearingCategory() {
+        String plan = explainGenerated(() -> taskRepository.clearCategory(UUID.randomUUID()));
+
+        assertThat(plan).contains("IDX_TASK_CATEGORY");
     }
 }
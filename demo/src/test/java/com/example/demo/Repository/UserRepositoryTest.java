@@ -0,0 +1,41 @@
+package com.example.demo.Repository;
+
+import com.example.demo.domain.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.model.CustomUserDetails;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional
+class UserRepositoryTest {
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Test
+    void shouldLoadCredentialsWithoutEntity() {
+        User user = new User();
+        user.setUsername("user_" + UUID.randomUUID());
+        user.setPassword("hash");
+        userRepository.save(user);
+
+        Optional<CustomUserDetails> details = userRepository.findCredentialsByUsername(user.getUsername());
+
+        assertThat(details).isPresent();
+        assertThat(details.get().getId()).isEqualTo(user.getId());
+        assertThat(details.get().getPassword()).isEqualTo("hash");
+    }
+
+    @Test
+    void shouldReturnEmptyCredentialsForUnknownUser() {
+        assertThat(userRepository.findCredentialsByUsername("nobody")).isEmpty();
+    }
+}
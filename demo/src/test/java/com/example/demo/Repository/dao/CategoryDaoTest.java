@@ -80,4 +80,31 @@ class CategoryDaoTest {
         assertThat(deleted).isEqualTo(0);
     }
 
+    @Test
+    void shouldMoveTasksInBatchesAndDeleteUnusedCategory() {
+        Category work = categoryDao.findAll().stream()
+                .filter(c -> c.getName().equals("Work"))
+                .findFirst()
+                .orElseThrow();
+        Category home = categoryDao.findAll().stream()
+                .filter(c -> c.getName().equals("Home"))
+                .findFirst()
+                .orElseThrow();
+
+        long total = categoryDao.countTasks(work.getId());
+        long homeBefore = categoryDao.countTasks(home.getId());
+        assertThat(total).isGreaterThan(1);
+
+        // dopoki zadania wskazuja kategorie, wiersz zostaje
+        assertThat(categoryDao.deleteIfUnused(work.getId())).isEqualTo(0);
+
+        assertThat(categoryDao.moveTasks(work.getId(), home.getId(), 1)).isEqualTo(1);
+        assertThat(categoryDao.countTasks(work.getId())).isEqualTo(total - 1);
+
+        assertThat(categoryDao.moveTasks(work.getId(), null, 1000)).isEqualTo((int) total - 1);
+        assertThat(categoryDao.countTasks(work.getId())).isZero();
+        assertThat(categoryDao.countTasks(home.getId())).isEqualTo(homeBefore + 1);
+
+        assertThat(categoryDao.deleteIfUnused(work.getId())).isEqualTo(1);
+    }
 }
@@ -0,0 +1,81 @@
+package com.example.demo.Repository.dao;
+
+import com.example.demo.domain.entity.Task;
+import com.example.demo.domain.entity.User;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.dao.DashboardJdbcDao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(DashboardJdbcDao.class)
+class DashboardJdbcDaoTest {
+
+    @Autowired
+    private DashboardJdbcDao dashboardJdbcDao;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User saveUser() {
+        User user = new User();
+        user.setUsername("user_" + UUID.randomUUID());
+        user.setPassword("pass");
+        return userRepository.save(user);
+    }
+
+    private void saveTask(User user, Status status) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setStatus(status);
+        task.setUser(user);
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        taskRepository.save(task);
+    }
+
+    @Test
+    void shouldMatchSeparateCounts() {
+        User user = saveUser();
+        User other = saveUser();
+        saveTask(user, Status.TODO);
+        saveTask(user, Status.TODO);
+        saveTask(user, Status.IN_PROGRESS);
+        saveTask(user, Status.DONE);
+        saveTask(user, Status.DONE);
+        saveTask(user, Status.DONE);
+        saveTask(other, Status.DONE);
+        taskRepository.flush();
+
+        Map<Status, Long> grouped = dashboardJdbcDao.countGroupedByStatus(user.getId());
+
+        for (Status status : Status.values()) {
+            assertThat(grouped.get(status))
+                    .isEqualTo(dashboardJdbcDao.countByStatus(user.getId(), status));
+        }
+        assertThat(grouped.values().stream().mapToLong(Long::longValue).sum())
+                .isEqualTo(dashboardJdbcDao.countAll(user.getId()));
+    }
+
+    @Test
+    void shouldReturnZeroForEveryStatusWhenUserHasNoTasks() {
+        User user = saveUser();
+
+        Map<Status, Long> grouped = dashboardJdbcDao.countGroupedByStatus(user.getId());
+
+        assertThat(grouped).containsOnlyKeys(Status.values());
+        assertThat(grouped.values()).containsOnly(0L);
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.demo.Repository.dao;
+
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.entity.Category;
+import com.example.demo.domain.entity.Task;
+import com.example.demo.domain.entity.User;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.enums.TaskSort;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.dao.TaskPageDao;
+import com.example.demo.service.TaskService;
+import com.example.demo.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TaskPageDao.class)
+class TaskPageDaoTest {
+
+    @Autowired
+    private TaskPageDao taskPageDao;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final Map<TaskSort, String> SORT_INDEXES = Map.of(
+            TaskSort.CREATED_AT, "IDX_TASK_USER_CREATED",
+            TaskSort.UPDATED_AT, "IDX_TASK_USER_UPDATED",
+            TaskSort.DUE_DATE, "IDX_TASK_USER_DUE",
+            TaskSort.TITLE, "IDX_TASK_USER_TITLE",
+            TaskSort.STATUS, "IDX_TASK_USER_STATUS_DUE"
+    );
+
+    private User saveUser() {
+        User user = new User();
+        user.setUsername("user_" + UUID.randomUUID());
+        user.setPassword("pass");
+        return userRepository.save(user);
+    }
+
+    private Task saveTask(User user, String title, Status status, LocalDateTime dueDate) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setUser(user);
+        task.setDueDate(dueDate);
+        return taskRepository.save(task);
+    }
+
+    // DAO z JdbcTemplate, ktory zamiast wykonac zapytanie o id albo COUNT zapisuje jego plan
+    private TaskPageDao explainingDao(List<String> plans) {
+        return new TaskPageDao(new JdbcTemplate(dataSource) {
+            @Override
+            public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+                plans.add(explain(sql, args));
+                return List.of();
+            }
+
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+                plans.add(explain(sql, args));
+                return null;
+            }
+
+            private String explain(String sql, Object... args) {
+                return super.queryForObject("EXPLAIN " + sql, String.class, args).toUpperCase();
+            }
+        });
+    }
+
+    // TaskService na prawdziwym repozytorium i DAO liczacym swoje zapytania, pozostale zaleznosci nie biora udzialu w odczycie strony
+    private TaskService countingTaskService(UUID userId, AtomicInteger jdbcQueries) {
+        TaskPageDao countingDao = new TaskPageDao(new JdbcTemplate(dataSource) {
+            @Override
+            public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+                jdbcQueries.incrementAndGet();
+                return super.queryForList(sql, elementType, args);
+            }
+
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+                jdbcQueries.incrementAndGet();
+                return super.queryForObject(sql, requiredType, args);
+            }
+        });
+
+        UserService userService = mock(UserService.class);
+        when(userService.getLoggedUserId()).thenReturn(userId);
+
+        return new TaskService(taskRepository, null, null, null, userService, null, null, null, null, countingDao, null, null);
+    }
+
+    private Statistics clearedStatistics() {
+        taskRepository.flush();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    void shouldReadEverySortInIndexOrder() {
+        UUID userId = UUID.randomUUID();
+
+        for (TaskSort sort : TaskSort.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                List<String> plans = new ArrayList<>();
+                explainingDao(plans).findPageIds(userId, null, null, null, null, null, sort, direction, 20, 10);
+
+                assertThat(plans.get(0))
+                        .as("%s %s", sort, direction)
+                        .contains(SORT_INDEXES.get(sort))
+                        .contains("/* INDEX SORTED */");
+            }
+        }
+    }
+
+    @Test
+    void shouldReadStatusFilterInIndexOrder() {
+        List<String> plans = new ArrayList<>();
+
+        explainingDao(plans).findPageIds(UUID.randomUUID(), null, Status.TODO, null, null, null,
+                TaskSort.DUE_DATE, Sort.Direction.ASC, 0, 10);
+
+        assertThat(plans.get(0)).contains("IDX_TASK_USER_STATUS_DUE").contains("/* INDEX SORTED */");
+    }
+
+    @Test
+    void shouldReadDeadlineFilterInIndexOrder() {
+        List<String> plans = new ArrayList<>();
+
+        explainingDao(plans).findPageIds(UUID.randomUUID(), null, null, null, LocalDateTime.now(), null,
+                TaskSort.DUE_DATE, Sort.Direction.DESC, 0, 10);
+
+        assertThat(plans.get(0)).contains("IDX_TASK_USER_DUE").contains("/* INDEX SORTED */");
+    }
+
+    @Test
+    void shouldReadCategoryFilterByIndex() {
+        List<String> plans = new ArrayList<>();
+
+        explainingDao(plans).findPageIds(UUID.randomUUID(), null, null, UUID.randomUUID(), null, null,
+                TaskSort.CREATED_AT, Sort.Direction.DESC, 0, 10);
+
+        assertThat(plans.get(0)).contains("IDX_TASK_USER_CATEGORY");
+    }
+
+    @Test
+    void shouldCountStatusAndDeadlineFilterByIndex() {
+        List<String> plans = new ArrayList<>();
+
+        explainingDao(plans).count(UUID.randomUUID(), null, Status.TODO, null, LocalDateTime.now(), null);
+
+        assertThat(plans.get(0)).contains("IDX_TASK_USER_STATUS_DUE");
+    }
+
+    @Test
+    void shouldPageInRequestedOrderWithIdAsTieBreaker() {
+        User user = saveUser();
+        User other = saveUser();
+        LocalDateTime due = LocalDateTime.now().plusDays(1);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(saveTask(user, "Task " + (i % 2), Status.TODO, due.plusHours(i % 2)));
+        }
+        saveTask(other, "Task 0", Status.TODO, due);
+        taskRepository.flush();
+
+        // UUID.compareTo porownuje ze znakiem, baza bez - kolejnosc tekstowa jest zgodna z baza
+        List<UUID> expected = tasks.stream()
+                .sorted(Comparator.comparing(Task::getTitle)
+                        .thenComparing(task -> task.getId().toString())
+                        .reversed())
+                .map(Task::getId)
+                .toList();
+
+        List<UUID> firstPage = taskPageDao.findPageIds(user.getId(), null, null, null, null, null,
+                TaskSort.TITLE, Sort.Direction.DESC, 0, 3);
+        List<UUID> secondPage = taskPageDao.findPageIds(user.getId(), null, null, null, null, null,
+                TaskSort.TITLE, Sort.Direction.DESC, 3, 3);
+
+        assertThat(firstPage).containsExactlyElementsOf(expected.subList(0, 3));
+        assertThat(secondPage).containsExactlyElementsOf(expected.subList(3, 5));
+    }
+
+    @Test
+    void shouldApplyFiltersToPageAndCount() {
+        User user = saveUser();
+        LocalDateTime now = LocalDateTime.now();
+        Task overdue = saveTask(user, "Write report", Status.TODO, now.minusDays(1));
+        Task later = saveTask(user, "Write code", Status.TODO, now.plusDays(1));
+        saveTask(user, "Write docs", Status.DONE, now.plusDays(2));
+        saveTask(user, "Review", Status.TODO, now.plusDays(3));
+        taskRepository.flush();
+
+        assertThat(taskPageDao.findPageIds(user.getId(), "WRITE", Status.TODO, null, null, null,
+                TaskSort.DUE_DATE, Sort.Direction.ASC, 0, 10))
+                .containsExactly(overdue.getId(), later.getId());
+        assertThat(taskPageDao.findPageIds(user.getId(), null, null, null, null, now,
+                TaskSort.STATUS, Sort.Direction.ASC, 0, 10))
+                .hasSize(3)
+                .doesNotContain(overdue.getId());
+
+        assertThat(taskPageDao.count(user.getId(), "write", null, null, null, null)).isEqualTo(3);
+        assertThat(taskPageDao.count(user.getId(), null, Status.TODO, null, now, null)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLoadPageWithTwoQueriesAndCount() {
+        User user = saveUser();
+        Category category = new Category();
+        category.setName("Work");
+        category.setColor("#FFF");
+        categoryRepository.save(category);
+        for (int i = 0; i < 30; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setStatus(Status.TODO);
+            task.setUser(user);
+            task.setCategory(i % 2 == 0 ? category : null);
+            task.setDueDate(LocalDateTime.now().plusDays(1));
+            taskRepository.save(task);
+        }
+        AtomicInteger jdbcQueries = new AtomicInteger();
+        TaskService taskService = countingTaskService(user.getId(), jdbcQueries);
+        Statistics statistics = clearedStatistics();
+
+        Page<TaskResponseDTO> page = taskService.getTasks(null, null, null, null,
+                TaskSort.TITLE, Sort.Direction.ASC, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(page.getContent()).filteredOn(task -> task.getCategory() != null)
+                .isNotEmpty()
+                .allMatch(task -> task.getCategory().getName().equals("Work"));
+
+        // id strony z indeksu + COUNT przez JDBC, wiersze jedna projekcja - bez encji i bez doczytywania kategorii
+        assertThat(jdbcQueries.get()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldSkipCountWhenFirstPageIsNotFull() {
+        User user = saveUser();
+        for (int i = 0; i < 5; i++) {
+            saveTask(user, "Task " + i, Status.DONE, LocalDateTime.now().plusDays(1));
+        }
+        AtomicInteger jdbcQueries = new AtomicInteger();
+        TaskService taskService = countingTaskService(user.getId(), jdbcQueries);
+        Statistics statistics = clearedStatistics();
+
+        Page<TaskResponseDTO> page = taskService.getTasks(null, Status.DONE, null, null,
+                TaskSort.CREATED_AT, Sort.Direction.DESC, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(5);
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(jdbcQueries.get()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
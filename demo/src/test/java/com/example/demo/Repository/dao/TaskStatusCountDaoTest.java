@@ -0,0 +1,174 @@
+package com.example.demo.Repository.dao;
+
+import com.example.demo.domain.entity.Task;
+import com.example.demo.domain.entity.User;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.dao.DashboardJdbcDao;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.service.ResourceVersionService;
+import com.example.demo.service.TaskStatusCountReconciler;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({TaskStatusCountDao.class, DashboardJdbcDao.class, TaskStatusCountReconciler.class, ResourceVersionService.class})
+class TaskStatusCountDaoTest {
+
+    @Autowired
+    private TaskStatusCountDao taskStatusCountDao;
+
+    @Autowired
+    private TaskStatusCountReconciler reconciler;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User saveUser() {
+        User user = new User();
+        user.setUsername("user_" + UUID.randomUUID());
+        user.setPassword("pass");
+        return userRepository.save(user);
+    }
+
+    private void saveTask(User user, Status status) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setStatus(status);
+        task.setUser(user);
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        taskRepository.save(task);
+    }
+
+    @Test
+    void shouldCreateAndAccumulateCounters() {
+        UUID userId = UUID.randomUUID();
+
+        taskStatusCountDao.increment(userId, Status.TODO, 1);
+        taskStatusCountDao.increment(userId, Status.TODO, 1);
+        taskStatusCountDao.move(userId, Status.TODO, Status.DONE);
+        taskStatusCountDao.add(userId, Map.of(Status.IN_PROGRESS, 3L, Status.DONE, 0L));
+
+        assertThat(taskStatusCountDao.findByUser(userId)).containsExactlyInAnyOrderEntriesOf(Map.of(
+                Status.TODO, 1L, Status.IN_PROGRESS, 3L, Status.DONE, 1L
+        ));
+    }
+
+    @Test
+    void shouldReturnZeroForEveryStatusWithoutCounters() {
+        assertThat(taskStatusCountDao.findByUser(UUID.randomUUID()))
+                .containsOnlyKeys(Status.values())
+                .containsValues(0L);
+    }
+
+    @Test
+    void shouldDetectAndRepairDrift() {
+        User user = saveUser();
+        User synced = saveUser();
+        saveTask(user, Status.TODO);
+        saveTask(user, Status.DONE);
+        saveTask(synced, Status.DONE);
+        taskRepository.flush();
+
+        // zadania usera wstawione z pominieciem licznikow, liczniki drugiego zgodne z zadaniami
+        taskStatusCountDao.increment(user.getId(), Status.IN_PROGRESS, 4);
+        taskStatusCountDao.increment(synced.getId(), Status.DONE, 1);
+
+        assertThat(taskStatusCountDao.findUsersWithDrift())
+                .contains(user.getId())
+                .doesNotContain(synced.getId());
+
+        assertThat(reconciler.reconcile()).isPositive();
+
+        assertThat(taskStatusCountDao.findByUser(user.getId())).containsExactlyInAnyOrderEntriesOf(Map.of(
+                Status.TODO, 1L, Status.IN_PROGRESS, 0L, Status.DONE, 1L
+        ));
+        assertThat(taskStatusCountDao.findUsersWithDrift()).isEmpty();
+    }
+
+    @Test
+    void shouldCreateCounterRowsWhenLockingUserWithoutCounters() {
+        UUID userId = UUID.randomUUID();
+
+        taskStatusCountDao.lockByUser(userId);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_status_count WHERE user_id = ?", Long.class, userId))
+                .isEqualTo(Status.values().length);
+        assertThat(taskStatusCountDao.findByUser(userId)).containsValues(0L);
+    }
+
+    // dwie transakcje na osobnych polaczeniach, wiec test zarzadza nimi sam
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void shouldBlockCounterWritesOfUserWithoutCountersWhileLocked() throws Exception {
+        UUID userId = UUID.randomUUID();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<?> repair = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                taskStatusCountDao.lockByUser(userId);
+                locked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> write = executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                    taskStatusCountDao.increment(userId, Status.TODO, 1)));
+
+            // zapis czeka na naprawe, zamiast zostac nadpisany przez policzony wczesniej stan
+            assertThatThrownBy(() -> write.get(300, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+            release.countDown();
+            repair.get(5, TimeUnit.SECONDS);
+            write.get(5, TimeUnit.SECONDS);
+
+            assertThat(taskStatusCountDao.findByUser(userId)).containsEntry(Status.TODO, 1L);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            jdbcTemplate.update("DELETE FROM task_status_count WHERE user_id = ?", userId);
+        }
+    }
+}
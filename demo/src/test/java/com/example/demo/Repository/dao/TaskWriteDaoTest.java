@@ -0,0 +1,111 @@
+package com.example.demo.Repository.dao;
+
+import com.example.demo.domain.dto.Task.TaskStatusChange;
+import com.example.demo.domain.entity.Category;
+import com.example.demo.domain.entity.Task;
+import com.example.demo.domain.entity.User;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.repository.dao.TaskWriteDao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({TaskWriteDao.class, TaskStatusCountDao.class})
+class TaskWriteDaoTest {
+
+    @Autowired
+    private TaskWriteDao taskWriteDao;
+
+    @Autowired
+    private TaskStatusCountDao taskStatusCountDao;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User saveUser() {
+        User user = new User();
+        user.setUsername("user_" + UUID.randomUUID());
+        user.setPassword("pass");
+        return userRepository.save(user);
+    }
+
+    private Task saveTask(User user, Category category, Status status) {
+        Task task = new Task();
+        task.setTitle("Report");
+        task.setDescription("Desc");
+        task.setStatus(status);
+        task.setUser(user);
+        task.setCategory(category);
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        taskRepository.saveAndFlush(task);
+        taskStatusCountDao.increment(user.getId(), status, 1);
+        return task;
+    }
+
+    private String storedStatus(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM task WHERE id = ?", String.class, id);
+    }
+
+    @Test
+    void shouldDeleteOnlyOwnedTaskAndDecrementItsCounter() {
+        User owner = saveUser();
+        User stranger = saveUser();
+        Task task = saveTask(owner, null, Status.IN_PROGRESS);
+
+        assertThat(taskWriteDao.deleteOwned(task.getId(), stranger.getId())).isZero();
+        assertThat(taskStatusCountDao.findByUser(owner.getId())).containsEntry(Status.IN_PROGRESS, 1L);
+
+        assertThat(taskWriteDao.deleteOwned(task.getId(), owner.getId())).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task WHERE id = ?", Long.class, task.getId())).isZero();
+        assertThat(taskStatusCountDao.findByUser(owner.getId())).containsEntry(Status.IN_PROGRESS, 0L);
+        assertThat(taskWriteDao.deleteOwned(task.getId(), owner.getId())).isZero();
+    }
+
+    @Test
+    void shouldUpdateOnlyOwnedTaskAndReturnPreviousStatus() {
+        User owner = saveUser();
+        User stranger = saveUser();
+        Category category = new Category();
+        category.setName("Work");
+        category.setColor("#FFF");
+        categoryRepository.save(category);
+        Task task = saveTask(owner, category, Status.TODO);
+        LocalDateTime updatedAt = LocalDateTime.now();
+
+        assertThat(taskWriteDao.updateStatusOwned(task.getId(), stranger.getId(), Status.DONE, updatedAt)).isEmpty();
+        assertThat(storedStatus(task.getId())).isEqualTo("TODO");
+
+        TaskStatusChange change = taskWriteDao.updateStatusOwned(task.getId(), owner.getId(), Status.DONE, updatedAt).orElseThrow();
+
+        assertThat(change.getPreviousStatus()).isEqualTo(Status.TODO);
+        assertThat(change.getCategoryId()).isEqualTo(category.getId());
+        assertThat(change.getTask().getId()).isEqualTo(task.getId());
+        assertThat(change.getTask().getTitle()).isEqualTo("Report");
+        assertThat(change.getTask().getStatus()).isEqualTo(Status.DONE);
+        assertThat(change.getTask().getUserId()).isEqualTo(owner.getId());
+        assertThat(change.getTask().getUpdatedAt()).isEqualTo(updatedAt);
+        assertThat(storedStatus(task.getId())).isEqualTo("DONE");
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.Security;
+
+import com.example.demo.domain.exceptions.PasswordHashingBusyException;
+import com.example.demo.security.cache.TtlUserCache;
+import com.example.demo.security.model.CustomUserDetails;
+import com.example.demo.security.password.BcryptStrength;
+import com.example.demo.security.password.BoundedPasswordEncoder;
+import com.example.demo.security.service.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    // koder, ktory trzyma watek puli az do zwolnienia zatrzasku
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        return delegate;
+    }
+
+    private static DelegatingPasswordEncoder delegating(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    @Test
+    void shouldHashOnPoolThread() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.encode("secret")).thenAnswer(invocation -> Thread.currentThread().getName());
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(1));
+
+        assertTrue(encoder.encode("secret").startsWith("password-hash-"));
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (encoder.getQueued() == 0) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("c"));
+        assertEquals(1, encoder.getRejected());
+
+        release.countDown();
+        assertEquals("hash", running.get(1, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldGiveUpAfterWaitTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blockingEncoder(started, release), 1, 5, Duration.ofMillis(50));
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("a"));
+        release.countDown();
+    }
+
+    @Test
+    void shouldPickHighestStrengthWithinBudget() {
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+
+        assertEquals(BcryptStrength.MIN, BcryptStrength.forBudget(100 * ms, 80 * ms));
+        assertEquals(12, BcryptStrength.forBudget(250 * ms, 60 * ms));
+        assertEquals(BcryptStrength.MAX, BcryptStrength.forBudget(10_000 * ms, ms));
+    }
+
+    @Test
+    void shouldIgnoreSingleStallWhenMeasuringHashTime() {
+        // jeden pomiar przerwany przez GC albo start innych beanow nie podnosi wyniku
+        assertEquals(60, BcryptStrength.median(new long[]{61, 59, 900, 60, 58}));
+    }
+
+    @Test
+    void shouldUpgradeLegacyAndWeakerHashes() {
+        DelegatingPasswordEncoder delegating = delegating(5);
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+        String current = delegating.encode("secret");
+
+        assertTrue(delegating.matches("secret", legacy));
+        assertTrue(delegating.upgradeEncoding(legacy));
+        assertTrue(delegating.upgradeEncoding(weaker));
+        assertFalse(delegating.upgradeEncoding(current));
+    }
+
+    @Test
+    void shouldRehashOnSuccessfulLogin() {
+        encoder = new BoundedPasswordEncoder(delegating(5), 1, 1, Duration.ofSeconds(5));
+        CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+        CustomUserDetails stored = new CustomUserDetails(UUID.randomUUID(), "kacper", new BCryptPasswordEncoder(4).encode("secret"));
+        when(userDetailsService.loadUserByUsername("kacper")).thenReturn(stored);
+        when(userDetailsService.updatePassword(eq(stored), anyString())).thenAnswer(invocation ->
+                new CustomUserDetails(stored.getId(), "kacper", invocation.getArgument(1)));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("kacper", "secret"));
+
+        verify(userDetailsService).updatePassword(eq(stored), argThat(hash -> hash.startsWith("{bcrypt}$2a$05$")));
+    }
+
+    @Test
+    void shouldNotRetryLoginFromDatabaseWhenPoolIsBusy() {
+        PasswordEncoder busy = mock(PasswordEncoder.class);
+        when(busy.matches(any(), any())).thenThrow(new PasswordHashingBusyException("busy"));
+        CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+        TtlUserCache cache = new TtlUserCache(10, Duration.ofMinutes(10), Clock.systemUTC());
+        cache.putUserInCache(new CustomUserDetails(UUID.randomUUID(), "kacper", "hash"));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(busy);
+        provider.setUserCache(cache);
+
+        assertThrows(PasswordHashingBusyException.class,
+                () -> provider.authenticate(new UsernamePasswordAuthenticationToken("kacper", "secret")));
+        verify(busy, times(1)).matches(any(), any());
+        verifyNoInteractions(userDetailsService);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.Security;
+
+import com.example.demo.security.cache.TtlUserCache;
+import com.example.demo.security.model.CustomUserDetails;
+import com.example.demo.security.service.CustomUserDetailsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TtlUserCacheTest {
+
+    // zegar przestawiany recznie, zeby sprawdzic wygasanie bez czekania
+    static class MutableClock extends Clock {
+        Instant now = Instant.parse("2025-01-01T10:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private CustomUserDetails user(String username) {
+        return new CustomUserDetails(UUID.randomUUID(), username, "hash");
+    }
+
+    @Test
+    void shouldReturnCachedUserUntilTtlExpires() {
+        MutableClock clock = new MutableClock();
+        TtlUserCache cache = new TtlUserCache(10, Duration.ofMinutes(10), clock);
+        CustomUserDetails kacper = user("kacper");
+
+        cache.putUserInCache(kacper);
+        clock.now = clock.now.plus(Duration.ofMinutes(9));
+
+        assertSame(kacper, cache.getUserFromCache("kacper"));
+
+        clock.now = clock.now.plus(Duration.ofMinutes(1));
+
+        assertNull(cache.getUserFromCache("kacper"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedUserWhenFull() {
+        TtlUserCache cache = new TtlUserCache(2, Duration.ofMinutes(10), new MutableClock());
+
+        cache.putUserInCache(user("a"));
+        cache.putUserInCache(user("b"));
+        cache.getUserFromCache("a");
+        cache.putUserInCache(user("c"));
+
+        assertNotNull(cache.getUserFromCache("a"));
+        assertNull(cache.getUserFromCache("b"));
+        assertNotNull(cache.getUserFromCache("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void shouldRemoveUserFromCache() {
+        TtlUserCache cache = new TtlUserCache(10, Duration.ofMinutes(10), new MutableClock());
+        cache.putUserInCache(user("kacper"));
+
+        cache.removeUserFromCache("kacper");
+
+        assertNull(cache.getUserFromCache("kacper"));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void shouldNotHitUserDetailsServiceOnRepeatedLogin() {
+        CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("kacper")).thenReturn(new CustomUserDetails(UUID.randomUUID(), "kacper", "secret"));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
+        provider.setPasswordEncoder(NoOpPasswordEncoder.getInstance());
+        provider.setUserCache(new TtlUserCache(10, Duration.ofMinutes(10), new MutableClock()));
+
+        Authentication first = provider.authenticate(new UsernamePasswordAuthenticationToken("kacper", "secret"));
+        provider.authenticate(new UsernamePasswordAuthenticationToken("kacper", "secret"));
+
+        assertInstanceOf(CustomUserDetails.class, first.getPrincipal());
+        verify(userDetailsService, times(1)).loadUserByUsername("kacper");
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.Service;
+
+import com.example.demo.service.job.BackgroundJob;
+import com.example.demo.service.job.BackgroundJobs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackgroundJobsTest {
+
+    BackgroundJobs<TestJob> jobs;
+
+    @AfterEach
+    void tearDown() {
+        if (jobs != null) {
+            jobs.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectJobWhenQueueIsFull() throws Exception {
+        jobs = new BackgroundJobs<>("test-job", 1, 1, Duration.ofHours(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TestJob running = new TestJob();
+        TestJob queued = new TestJob();
+        TestJob rejected = new TestJob();
+
+        assertTrue(jobs.submit(running, job -> {
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertTrue(jobs.submit(queued, job -> { }));
+
+        assertFalse(jobs.submit(rejected, job -> { }));
+        assertTrue(jobs.find(rejected.getId()).isEmpty());
+        // oba przyjete joby sa aktywne, kolejnosc w rejestrze nie jest okreslona
+        assertSame(running, jobs.findActive(job -> job == running).orElseThrow());
+        assertSame(queued, jobs.findActive(job -> job == queued).orElseThrow());
+
+        release.countDown();
+    }
+
+    @Test
+    void shouldRemoveOnlyExpiredFinishedJobs() {
+        jobs = new BackgroundJobs<>("test-job", 1, 1, Duration.ZERO);
+        TestJob finished = new TestJob();
+        TestJob active = new TestJob();
+        jobs.submit(finished, TestJob::done);
+        jobs.submit(active, job -> { });
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!finished.isFinished()) {
+            assertTrue(System.nanoTime() < deadline, "job did not finish");
+            Thread.onSpinWait();
+        }
+
+        assertEquals(List.of(finished), jobs.removeExpired());
+        assertTrue(jobs.find(finished.getId()).isEmpty());
+        assertTrue(jobs.find(active.getId()).isPresent());
+    }
+
+    @Test
+    void shouldCapProgressUntilJobIsDone() {
+        assertEquals(0, BackgroundJobs.progress(false, 5, 0));
+        assertEquals(50, BackgroundJobs.progress(false, 5, 10));
+        assertEquals(99, BackgroundJobs.progress(false, 12, 10));
+        assertEquals(100, BackgroundJobs.progress(true, 3, 10));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class TestJob extends BackgroundJob {
+        private volatile boolean finished;
+
+        void done() {
+            finish();
+            finished = true;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.example.demo.Service;
+
+import com.example.demo.domain.dto.Category.CategoryDeletionJobDTO;
+import com.example.demo.domain.enums.CategoryDeletionStatus;
+import com.example.demo.domain.exceptions.CategoryDeletionQueueFullException;
+import com.example.demo.domain.exceptions.NotFoundException;
+import com.example.demo.repository.dao.CategoryDao;
+import com.example.demo.service.CategoryDeletionService;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryDeletionServiceTest {
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    CategoryDao categoryDao;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Mock
+    ResourceVersionService resourceVersionService;
+
+    CategoryDeletionService deletionService;
+
+    UUID categoryId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        // transakcja w tescie po prostu wykonuje callback
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (deletionService != null) {
+            deletionService.shutdown();
+        }
+    }
+
+    private CategoryDeletionService createService(int batchSize, int queueCapacity) {
+        deletionService = new CategoryDeletionService(categoryService, categoryDao, transactionTemplate, resourceVersionService,
+                batchSize, queueCapacity, Duration.ofHours(1));
+        return deletionService;
+    }
+
+    private CategoryDeletionJobDTO awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        CategoryDeletionJobDTO job = deletionService.getJob(id);
+        while (job.getStatus() != CategoryDeletionStatus.DONE && job.getStatus() != CategoryDeletionStatus.FAILED) {
+            assertTrue(System.nanoTime() < deadline, "deletion did not finish");
+            Thread.sleep(10);
+            job = deletionService.getJob(id);
+        }
+        return job;
+    }
+
+    @Test
+    void shouldMoveTasksInBatchesBeforeDeletingCategory() {
+        createService(2, 1);
+        UUID target = UUID.randomUUID();
+        when(categoryDao.countTasks(categoryId)).thenReturn(5L);
+        when(categoryDao.moveTasks(categoryId, target, 2)).thenReturn(2, 2, 1);
+        when(categoryDao.deleteIfUnused(categoryId)).thenReturn(1);
+
+        CategoryDeletionJobDTO job = deletionService.deleteInBatches(categoryId, target);
+
+        assertEquals(CategoryDeletionStatus.DONE, job.getStatus());
+        assertEquals(5, job.getTasksMoved());
+        assertEquals(3, job.getBatches());
+        assertEquals(100, job.getProgress());
+
+        // kazda paczka i usuniecie wiersza w osobnej transakcji
+        verify(transactionTemplate, times(4)).execute(any());
+        InOrder inOrder = inOrder(categoryService, categoryDao);
+        inOrder.verify(categoryService).beginDeletion(categoryId, target);
+        inOrder.verify(categoryDao, times(3)).moveTasks(categoryId, target, 2);
+        inOrder.verify(categoryDao).deleteIfUnused(categoryId);
+        inOrder.verify(categoryService).finishDeletion(categoryId, true);
+    }
+
+    @Test
+    void shouldMoveLateTasksWhenCategoryIsStillReferenced() {
+        createService(10, 1);
+        when(categoryDao.moveTasks(categoryId, null, 10)).thenReturn(3, 1);
+        when(categoryDao.deleteIfUnused(categoryId)).thenReturn(0, 1);
+
+        CategoryDeletionJobDTO job = deletionService.deleteInBatches(categoryId, null);
+
+        assertEquals(4, job.getTasksMoved());
+        verify(categoryDao, times(2)).deleteIfUnused(categoryId);
+        verify(categoryService).finishDeletion(categoryId, true);
+    }
+
+    @Test
+    void shouldKeepCategoryWhenItStaysReferenced() {
+        createService(10, 1);
+        when(categoryDao.moveTasks(categoryId, null, 10)).thenReturn(0);
+        when(categoryDao.deleteIfUnused(categoryId)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> deletionService.deleteInBatches(categoryId, null));
+
+        verify(categoryDao, times(3)).deleteIfUnused(categoryId);
+        verify(categoryService).finishDeletion(categoryId, false);
+    }
+
+    @Test
+    void shouldReportProgressOfBackgroundDeletion() throws Exception {
+        createService(2, 1);
+        CountDownLatch firstBatch = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(categoryDao.countTasks(categoryId)).thenReturn(4L);
+        when(categoryDao.moveTasks(categoryId, null, 2)).thenAnswer(invocation -> {
+            firstBatch.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 2;
+        }).thenReturn(2, 0);
+        when(categoryDao.deleteIfUnused(categoryId)).thenReturn(1);
+
+        CategoryDeletionJobDTO started = deletionService.startDeletion(categoryId, null);
+        assertTrue(firstBatch.await(1, TimeUnit.SECONDS));
+
+        CategoryDeletionJobDTO running = deletionService.getJob(started.getId());
+        assertEquals(CategoryDeletionStatus.RUNNING, running.getStatus());
+        assertEquals(4, running.getTotalTasks());
+        // ponowne zlecenie tej samej kategorii zwraca trwajacy job
+        assertEquals(started.getId(), deletionService.startDeletion(categoryId, null).getId());
+
+        release.countDown();
+        CategoryDeletionJobDTO done = awaitFinished(started.getId());
+
+        assertEquals(CategoryDeletionStatus.DONE, done.getStatus());
+        assertEquals(4, done.getTasksMoved());
+        assertNotNull(done.getExpiresAt());
+        verify(categoryService, times(1)).beginDeletion(categoryId, null);
+        verify(categoryService, timeout(1000)).finishDeletion(categoryId, true);
+    }
+
+    @Test
+    void shouldMarkBackgroundDeletionAsFailed() throws Exception {
+        createService(2, 1);
+        when(categoryDao.moveTasks(categoryId, null, 2)).thenThrow(new IllegalStateException("db down"));
+
+        CategoryDeletionJobDTO job = awaitFinished(deletionService.startDeletion(categoryId, null).getId());
+
+        assertEquals(CategoryDeletionStatus.FAILED, job.getStatus());
+        assertEquals("Category deletion failed", job.getError());
+        verify(categoryService, timeout(1000)).finishDeletion(categoryId, false);
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        createService(2, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(categoryDao.moveTasks(eq(categoryId), any(), anyInt())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+        lenient().when(categoryDao.deleteIfUnused(any())).thenReturn(1);
+
+        deletionService.startDeletion(categoryId, null);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        deletionService.startDeletion(second, null);
+
+        assertThrows(CategoryDeletionQueueFullException.class, () -> deletionService.startDeletion(third, null));
+        verify(categoryService).finishDeletion(third, false);
+
+        release.countDown();
+    }
+
+    @Test
+    void shouldThrowWhenJobIsUnknown() {
+        createService(2, 1);
+
+        assertThrows(NotFoundException.class, () -> deletionService.getJob(UUID.randomUUID()));
+    }
+}
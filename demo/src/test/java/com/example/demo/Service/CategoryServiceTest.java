@@ -3,17 +3,22 @@ package com.example.demo.Service;
 import com.example.demo.domain.dto.Category.CategoryDTO;
 import com.example.demo.domain.dto.Category.CategoryReceiveDTO;
 import com.example.demo.domain.entity.Category;
+import com.example.demo.domain.exceptions.CategoryDeletionConflictException;
 import com.example.demo.domain.exceptions.NotFoundException;
 import com.example.demo.domain.mapper.CategoryMapper;
 import com.example.demo.repository.CategoryRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.dao.CategoryDao;
 import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -37,9 +42,23 @@ class CategoryServiceTest {
     @Mock
     CategoryDao categoryDao;
 
+    @Mock
+    ResourceVersionService resourceVersionService;
+
     @InjectMocks
     CategoryService categoryService;
 
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    }
+
     @Test
     void shouldReturnAllCategories() {
         Category category = new Category();
@@ -131,12 +150,129 @@ class CategoryServiceTest {
 
         when(categoryDao.delete(id)).thenReturn(1);
 
-        categoryService.deleteCategory(id);
+        categoryService.deleteCategory(id, null);
 
         verify(categoryDao).delete(id);
         verify(taskRepository).clearCategory(id);
     }
 
+    @Test
+    void shouldMoveTasksToTargetCategoryOnDelete() {
+        UUID id = UUID.randomUUID();
+        UUID target = UUID.randomUUID();
+        Category category = category(target, "Home");
+
+        when(categoryRepository.findById(target)).thenReturn(Optional.of(category));
+        when(categoryMapper.mapToDTO(category)).thenReturn(dto(target, "Home"));
+        when(categoryDao.delete(id)).thenReturn(1);
+
+        categoryService.deleteCategory(id, target);
+
+        verify(categoryDao).moveAllTasks(id, target);
+        verify(taskRepository, never()).clearCategory(any());
+    }
+
+    @Test
+    void shouldRejectMovingTasksToDeletedCategory() {
+        UUID id = UUID.randomUUID();
+
+        assertThrows(CategoryDeletionConflictException.class,
+                () -> categoryService.deleteCategory(id, id));
+        verify(categoryDao, never()).delete(any());
+    }
+
+    @Test
+    void shouldHideCategoryWhileItIsDeletedInBatches() {
+        UUID id = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        Category work = category(id, "Work");
+        Category home = category(other, "Home");
+
+        when(categoryDao.findAll()).thenReturn(List.of(work, home));
+        when(categoryMapper.mapToDTO(work)).thenReturn(dto(id, "Work"));
+        when(categoryMapper.mapToDTO(home)).thenReturn(dto(other, "Home"));
+
+        categoryService.beginDeletion(id, null);
+
+        assertEquals(List.of("Home"), categoryService.getCategories().stream().map(CategoryDTO::getName).toList());
+        assertThrows(NotFoundException.class, () -> categoryService.getAssignableCategory(id));
+        // zadania, ktore jeszcze wskazuja kategorie, nadal ja pokazuja
+        assertEquals("Work", categoryService.getCategoryById(id).getName());
+        assertThrows(CategoryDeletionConflictException.class, () -> categoryService.beginDeletion(id, null));
+        assertThrows(CategoryDeletionConflictException.class, () -> categoryService.deleteCategory(id, null));
+
+        // nieudane usuwanie - kategoria wraca do wyboru
+        categoryService.finishDeletion(id, false);
+
+        assertEquals(List.of("Work", "Home"), categoryService.getCategories().stream().map(CategoryDTO::getName).toList());
+        assertEquals("Work", categoryService.getAssignableCategory(id).getName());
+    }
+
+    @Test
+    void shouldNotDeleteCategoryThatReceivesTasksOfAnotherDeletion() {
+        UUID id = UUID.randomUUID();
+        UUID target = UUID.randomUUID();
+        Category work = category(id, "Work");
+        Category home = category(target, "Home");
+
+        when(categoryDao.findAll()).thenReturn(List.of(work, home));
+        when(categoryMapper.mapToDTO(work)).thenReturn(dto(id, "Work"));
+        when(categoryMapper.mapToDTO(home)).thenReturn(dto(target, "Home"));
+
+        categoryService.beginDeletion(id, target);
+
+        assertThrows(CategoryDeletionConflictException.class, () -> categoryService.beginDeletion(target, null));
+
+        categoryService.finishDeletion(id, true);
+
+        assertEquals(List.of("Home"), categoryService.getCategories().stream().map(CategoryDTO::getName).toList());
+    }
+
+    @Test
+    void shouldNotDeleteImmediatelyCategoryThatReceivesTasksOfAnotherDeletion() {
+        UUID id = UUID.randomUUID();
+        UUID target = UUID.randomUUID();
+        Category work = category(id, "Work");
+        Category home = category(target, "Home");
+
+        when(categoryDao.findAll()).thenReturn(List.of(work, home));
+        when(categoryMapper.mapToDTO(work)).thenReturn(dto(id, "Work"));
+        when(categoryMapper.mapToDTO(home)).thenReturn(dto(target, "Home"));
+
+        categoryService.beginDeletion(id, target);
+
+        assertThrows(CategoryDeletionConflictException.class, () -> categoryService.deleteCategory(target, null));
+        verify(taskRepository, never()).clearCategory(any());
+        verify(categoryDao, never()).delete(any());
+    }
+
+    @Test
+    void shouldReserveImmediatelyDeletedCategoryUntilTransactionEnds() {
+        UUID id = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        Category work = category(id, "Work");
+        Category home = category(other, "Home");
+
+        when(categoryDao.findAll()).thenReturn(List.of(work, home));
+        when(categoryMapper.mapToDTO(work)).thenReturn(dto(id, "Work"));
+        when(categoryMapper.mapToDTO(home)).thenReturn(dto(other, "Home"));
+        when(categoryDao.delete(id)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        categoryService.deleteCategory(id, null);
+
+        // przed commitem usuwanie paczkami nie moze przepinac zadan na te kategorie
+        assertThrows(CategoryDeletionConflictException.class, () -> categoryService.beginDeletion(other, id));
+        assertThrows(CategoryDeletionConflictException.class, () -> categoryService.deleteCategory(id, null));
+
+        // wycofana transakcja zwalnia rezerwacje
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(List.of("Work", "Home"), categoryService.getCategories().stream().map(CategoryDTO::getName).toList());
+        categoryService.beginDeletion(other, id);
+    }
+
     @Test
     void shouldThrowWhenDeletingNonExistingCategory() {
         UUID id = UUID.randomUUID();
@@ -144,6 +280,121 @@ class CategoryServiceTest {
         when(categoryDao.delete(id)).thenReturn(0);
 
         assertThrows(NotFoundException.class,
-                () -> categoryService.deleteCategory(id));
+                () -> categoryService.deleteCategory(id, null));
+    }
+
+    private Category category(UUID id, String name) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        category.setColor("#FFFFFF");
+        return category;
+    }
+
+    private CategoryDTO dto(UUID id, String name) {
+        CategoryDTO dto = new CategoryDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setColor("#FFFFFF");
+        return dto;
+    }
+
+    @Test
+    void shouldServeCategoriesFromCacheAfterFirstLoad() {
+        UUID id = UUID.randomUUID();
+        Category work = category(id, "Work");
+
+        when(categoryDao.findAll()).thenReturn(List.of(work));
+        when(categoryMapper.mapToDTO(work)).thenReturn(dto(id, "Work"));
+
+        categoryService.getCategories();
+        categoryService.getCategories();
+        CategoryDTO byId = categoryService.getCategoryById(id);
+
+        assertEquals("Work", byId.getName());
+        verify(categoryDao, times(1)).findAll();
+        verify(categoryRepository, never()).findById(any());
+        assertEquals(2, categoryService.getCacheHits());
+        assertEquals(1, categoryService.getCacheMisses());
+        assertEquals(1, categoryService.getCacheSize());
+    }
+
+    @Test
+    void shouldUpdateCacheInPlaceOnWrites() {
+        UUID id = UUID.randomUUID();
+        Category work = category(id, "Work");
+
+        when(categoryDao.findAll()).thenReturn(List.of(work));
+        when(categoryMapper.mapToDTO(work)).thenReturn(dto(id, "Work"));
+        when(categoryDao.update(id, "Office", "#000000")).thenReturn(1);
+
+        categoryService.getCategories();
+
+        CategoryReceiveDTO newCategory = new CategoryReceiveDTO();
+        newCategory.setName("Home");
+        newCategory.setColor("#000000");
+        CategoryDTO added = categoryService.addCategory(newCategory);
+
+        CategoryReceiveDTO rename = new CategoryReceiveDTO();
+        rename.setName("Office");
+        rename.setColor("#000000");
+        categoryService.updateCategory(rename, id);
+
+        assertEquals(List.of("Office", "Home"),
+                categoryService.getCategories().stream().map(CategoryDTO::getName).toList());
+
+        when(categoryDao.delete(added.getId())).thenReturn(1);
+        categoryService.deleteCategory(added.getId(), null);
+
+        assertEquals(List.of("Office"),
+                categoryService.getCategories().stream().map(CategoryDTO::getName).toList());
+        verify(categoryDao, times(1)).findAll();
+    }
+
+    @Test
+    void shouldEvictDeletedCategoryOnlyAfterCommit() {
+        UUID id = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        Category work = category(id, "Work");
+        Category home = category(other, "Home");
+
+        when(categoryDao.findAll()).thenReturn(List.of(work, home));
+        when(categoryMapper.mapToDTO(work)).thenReturn(dto(id, "Work"));
+        when(categoryMapper.mapToDTO(home)).thenReturn(dto(other, "Home"));
+        when(categoryDao.delete(other)).thenReturn(1);
+        categoryService.getCategories();
+        TransactionSynchronizationManager.initSynchronization();
+
+        categoryService.deleteCategory(other, null);
+
+        // przed commitem inni nadal widza wiersz w bazie
+        assertEquals(List.of("Work", "Home"), categoryService.getCategories().stream().map(CategoryDTO::getName).toList());
+
+        commit();
+
+        assertEquals(List.of("Work"), categoryService.getCategories().stream().map(CategoryDTO::getName).toList());
+    }
+
+    @Test
+    void shouldNotCacheCategoryReadWhileItIsDeleted() {
+        UUID id = UUID.randomUUID();
+        Category home = category(id, "Home");
+
+        when(categoryDao.findAll()).thenReturn(List.of());
+        when(categoryDao.delete(id)).thenReturn(1);
+        when(categoryMapper.mapToDTO(home)).thenReturn(dto(id, "Home"));
+        categoryService.getCategories();
+        TransactionSynchronizationManager.initSynchronization();
+        categoryService.deleteCategory(id, null);
+
+        // odczyt widzi jeszcze wiersz, a usuwanie commituje zanim odczyt wstawi go do cache
+        when(categoryRepository.findById(id)).thenAnswer(invocation -> {
+            commit();
+            return Optional.of(home);
+        }).thenReturn(Optional.empty());
+
+        assertEquals("Home", categoryService.getCategoryById(id).getName());
+        assertThrows(NotFoundException.class, () -> categoryService.getCategoryById(id));
+        assertEquals(0, categoryService.getCacheSize());
     }
 }
@@ -0,0 +1,179 @@
+package com.example.demo.Service;
+
+import com.example.demo.domain.dto.Task.DeadlineReminder;
+import com.example.demo.domain.dto.Task.TaskReminderRow;
+import com.example.demo.domain.enums.ReminderType;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.service.reminder.DeadlineReminderScheduler;
+import com.example.demo.service.reminder.DeadlineReminderSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadlineReminderSchedulerTest {
+
+    @Mock
+    TaskRepository taskRepository;
+
+    BlockingQueue<DeadlineReminder> received = new LinkedBlockingQueue<>();
+
+    DeadlineReminderScheduler scheduler;
+
+    UUID userId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private DeadlineReminderScheduler createScheduler(Duration lead, DeadlineReminderSink... sinks) {
+        List<DeadlineReminderSink> all = sinks.length > 0 ? List.of(sinks) : List.of(received::add);
+        scheduler = new DeadlineReminderScheduler(taskRepository, all, lead);
+        return scheduler;
+    }
+
+    private static LocalDateTime inMillis(long millis) {
+        return LocalDateTime.now().plus(Duration.ofMillis(millis));
+    }
+
+    @Test
+    void shouldFireDueSoonAndThenOverdue() throws Exception {
+        createScheduler(Duration.ofMillis(200));
+        UUID taskId = UUID.randomUUID();
+        LocalDateTime due = inMillis(400);
+
+        scheduler.schedule(taskId, userId, "Report", due, Status.TODO);
+
+        DeadlineReminder dueSoon = received.poll(2, TimeUnit.SECONDS);
+        DeadlineReminder overdue = received.poll(2, TimeUnit.SECONDS);
+
+        assertEquals(ReminderType.DUE_SOON, dueSoon.getType());
+        assertEquals(ReminderType.OVERDUE, overdue.getType());
+        assertEquals(taskId, overdue.getTaskId());
+        assertEquals(userId, overdue.getUserId());
+        assertEquals(due, overdue.getDueDate());
+        assertFalse(LocalDateTime.now().isBefore(due));
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void shouldFireDueSoonAtOnceWhenDeadlineIsWithinLead() throws Exception {
+        createScheduler(Duration.ofHours(1));
+
+        scheduler.schedule(UUID.randomUUID(), userId, "Report", LocalDateTime.now().plusMinutes(10), Status.TODO);
+
+        DeadlineReminder reminder = received.poll(1, TimeUnit.SECONDS);
+        assertEquals(ReminderType.DUE_SOON, reminder.getType());
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void shouldIgnoreOldEntriesAfterDeadlineMovesOrTaskIsDone() throws Exception {
+        createScheduler(Duration.ofMillis(100));
+        UUID moved = UUID.randomUUID();
+        UUID done = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+
+        scheduler.schedule(moved, userId, "Moved", inMillis(200), Status.TODO);
+        scheduler.schedule(done, userId, "Done", inMillis(200), Status.TODO);
+        scheduler.schedule(deleted, userId, "Deleted", inMillis(200), Status.TODO);
+
+        scheduler.schedule(moved, userId, "Moved", LocalDateTime.now().plusDays(1), Status.TODO);
+        scheduler.schedule(done, userId, "Done", inMillis(200), Status.DONE);
+        scheduler.cancel(deleted);
+
+        assertNull(received.poll(500, TimeUnit.MILLISECONDS));
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void shouldNotRepeatDueSoonWhenOnlyTitleChanges() throws Exception {
+        createScheduler(Duration.ofMillis(100));
+        UUID taskId = UUID.randomUUID();
+        LocalDateTime due = inMillis(300);
+
+        scheduler.schedule(taskId, userId, "Old title", due, Status.TODO);
+        scheduler.schedule(taskId, userId, "New title", due, Status.IN_PROGRESS);
+
+        DeadlineReminder dueSoon = received.poll(2, TimeUnit.SECONDS);
+        DeadlineReminder overdue = received.poll(2, TimeUnit.SECONDS);
+
+        assertEquals(ReminderType.DUE_SOON, dueSoon.getType());
+        assertEquals("New title", dueSoon.getTitle());
+        assertEquals(ReminderType.OVERDUE, overdue.getType());
+        assertNull(received.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldSkipPastDeadlines() {
+        createScheduler(Duration.ofHours(1));
+
+        scheduler.schedule(UUID.randomUUID(), userId, "Late", LocalDateTime.now().minusMinutes(1), Status.TODO);
+
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void shouldScheduleOnlyAfterCommit() {
+        createScheduler(Duration.ofHours(1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        scheduler.schedule(UUID.randomUUID(), userId, "Report", LocalDateTime.now().plusDays(1), Status.TODO);
+
+        assertEquals(0, scheduler.getScheduledCount());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void shouldLoadFutureDeadlinesOnRebuild() {
+        createScheduler(Duration.ofHours(1));
+        when(taskRepository.streamReminderRows(eq(Status.DONE), any())).thenReturn(Stream.of(
+                new TaskReminderRow(UUID.randomUUID(), userId, "A", LocalDateTime.now().plusDays(1)),
+                new TaskReminderRow(UUID.randomUUID(), userId, "B", LocalDateTime.now().plusDays(2))
+        ));
+
+        scheduler.rebuild();
+
+        assertEquals(2, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void shouldDeliverToRemainingSinksWhenOneFails() throws Exception {
+        createScheduler(Duration.ZERO, reminder -> {
+            throw new IllegalStateException("mail down");
+        }, received::add);
+
+        scheduler.schedule(UUID.randomUUID(), userId, "Report", inMillis(50), Status.TODO);
+
+        assertEquals(ReminderType.OVERDUE, received.poll(2, TimeUnit.SECONDS).getType());
+        assertEquals(1, scheduler.getFiredCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.Service;
+
+import com.example.demo.service.ResourceVersionService;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceVersionServiceTest {
+
+    @Mock
+    UserService userService;
+
+    ResourceVersionService resourceVersionService;
+
+    UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        resourceVersionService = new ResourceVersionService(userService);
+        lenient().when(userService.getLoggedUserId()).thenReturn(userId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldKeepEtagUntilTasksChange() {
+        String before = resourceVersionService.currentTasksEtag();
+
+        assertEquals(before, resourceVersionService.currentTasksEtag());
+
+        resourceVersionService.tasksChanged(userId);
+
+        assertNotEquals(before, resourceVersionService.currentTasksEtag());
+    }
+
+    @Test
+    void shouldNotChangeEtagOfOtherUsers() {
+        String tasks = resourceVersionService.currentTasksEtag();
+        String dashboard = resourceVersionService.currentDashboardEtag();
+
+        resourceVersionService.tasksChanged(UUID.randomUUID());
+
+        assertEquals(tasks, resourceVersionService.currentTasksEtag());
+        assertEquals(dashboard, resourceVersionService.currentDashboardEtag());
+    }
+
+    @Test
+    void shouldChangeTasksEtagButNotDashboardWhenCategoriesChange() {
+        String tasks = resourceVersionService.currentTasksEtag();
+        String dashboard = resourceVersionService.currentDashboardEtag();
+        String categories = resourceVersionService.categoriesEtag();
+
+        resourceVersionService.categoriesChanged();
+
+        assertNotEquals(tasks, resourceVersionService.currentTasksEtag());
+        assertNotEquals(categories, resourceVersionService.categoriesEtag());
+        assertEquals(dashboard, resourceVersionService.currentDashboardEtag());
+    }
+
+    @Test
+    void shouldChangeEtagOnlyAfterCommit() {
+        String before = resourceVersionService.currentTasksEtag();
+        TransactionSynchronizationManager.initSynchronization();
+
+        resourceVersionService.tasksChanged(userId);
+
+        assertEquals(before, resourceVersionService.currentTasksEtag());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNotEquals(before, resourceVersionService.currentTasksEtag());
+    }
+
+    @Test
+    void shouldNotChangeEtagWhenTransactionRollsBack() {
+        String before = resourceVersionService.categoriesEtag();
+        TransactionSynchronizationManager.initSynchronization();
+
+        resourceVersionService.categoriesChanged();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(before, resourceVersionService.categoriesEtag());
+    }
+
+    @Test
+    void shouldUseDifferentEtagsAfterRestart() {
+        ResourceVersionService restarted = new ResourceVersionService(userService);
+
+        assertNotEquals(resourceVersionService.categoriesEtag(), restarted.categoriesEtag());
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.demo.Service;
+
+import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.domain.dto.Task.TaskBatchResult;
+import com.example.demo.domain.dto.Task.TaskBatchStatusDTO;
+import com.example.demo.domain.dto.Task.TaskReceiveDTO;
+import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.entity.Task;
+import com.example.demo.domain.entity.User;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.exceptions.BatchTooLargeException;
+import com.example.demo.domain.exceptions.NotFoundException;
+import com.example.demo.domain.mapper.TaskMapper;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
+import com.example.demo.service.TaskBatchService;
+import com.example.demo.service.UserService;
+import com.example.demo.service.reminder.DeadlineReminderScheduler;
+import com.example.demo.service.search.TaskSearchIndex;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskBatchServiceTest {
+
+    @Mock
+    TaskRepository taskRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    TaskMapper taskMapper;
+
+    @Mock
+    UserService userService;
+
+    @Mock
+    TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    TaskStatusCountDao taskStatusCountDao;
+
+    @Mock
+    ResourceVersionService resourceVersionService;
+
+    @Mock
+    DeadlineReminderScheduler deadlineReminderScheduler;
+
+    TaskBatchService taskBatchService;
+
+    UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        // prawdziwy walidator, bo serwis sprawdza kazdy element osobno
+        taskBatchService = new TaskBatchService(taskRepository, userRepository, categoryRepository, taskMapper,
+                userService, taskSearchIndex, categoryService, Validation.buildDefaultValidatorFactory().getValidator(), taskStatusCountDao, resourceVersionService, deadlineReminderScheduler);
+        lenient().when(userService.getLoggedUserId()).thenReturn(userId);
+    }
+
+    private TaskReceiveDTO validTask(UUID categoryId) {
+        TaskReceiveDTO dto = new TaskReceiveDTO();
+        dto.setTitle("Task");
+        dto.setDescription("Desc");
+        dto.setStatus(Status.TODO);
+        dto.setDueDate(LocalDateTime.now().plusDays(1));
+        dto.setCategoryId(categoryId);
+        return dto;
+    }
+
+    private Task ownedTask(UUID id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setStatus(Status.TODO);
+        return task;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCreateValidTasksAndReportInvalidOnes() {
+        UUID categoryId = UUID.randomUUID();
+        UUID missingCategoryId = UUID.randomUUID();
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setId(categoryId);
+
+        when(userRepository.getReferenceById(userId)).thenReturn(new User());
+        when(categoryService.getAssignableCategory(categoryId)).thenReturn(categoryDTO);
+        when(categoryService.getAssignableCategory(missingCategoryId)).thenThrow(new NotFoundException("Chosen category not found"));
+        when(taskMapper.mapToResponseDTOWithoutCategory(any(Task.class))).thenAnswer(invocation -> new TaskResponseDTO());
+
+        TaskBatchResult result = taskBatchService.createTasks(List.of(
+                validTask(categoryId),
+                new TaskReceiveDTO(),
+                validTask(missingCategoryId),
+                validTask(categoryId)
+        ));
+
+        assertEquals(2, result.getSucceeded());
+        assertEquals(2, result.getFailed());
+        assertEquals(201, result.getItems().get(0).getHttpStatus());
+        assertSame(categoryDTO, result.getItems().get(0).getTask().getCategory());
+        assertEquals(400, result.getItems().get(1).getHttpStatus());
+        assertTrue(result.getItems().get(1).getError().contains("Title must not be blank"));
+        assertEquals(404, result.getItems().get(2).getHttpStatus());
+        assertEquals(3, result.getItems().get(3).getIndex());
+
+        ArgumentCaptor<List<Task>> saved = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+        verify(taskRepository).flush();
+        // kategoria sprawdzana raz na paczke, nie raz na element
+        verify(categoryService, times(1)).getAssignableCategory(categoryId);
+        verify(taskSearchIndex, times(2)).index(eq(userId), any(), eq("Task"), eq("Desc"));
+        verify(taskStatusCountDao).add(userId, Map.of(Status.TODO, 2L));
+    }
+
+    @Test
+    void shouldRejectTooLargeBatch() {
+        List<UUID> ids = new ArrayList<>(Collections.nCopies(TaskBatchService.MAX_BATCH_SIZE + 1, UUID.randomUUID()));
+
+        assertThrows(BatchTooLargeException.class, () -> taskBatchService.deleteTasks(ids));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void shouldUpdateStatusesOfOwnedTasksOnly() {
+        UUID ownedId = UUID.randomUUID();
+        UUID foreignId = UUID.randomUUID();
+        Task task = ownedTask(ownedId);
+
+        when(taskRepository.findOwnedForUpdateIn(Set.of(ownedId, foreignId), userId)).thenReturn(List.of(task));
+        when(taskMapper.mapToResponseDTOWithoutCategory(task)).thenReturn(new TaskResponseDTO());
+
+        TaskBatchResult result = taskBatchService.updateStatuses(List.of(
+                new TaskBatchStatusDTO(ownedId, Status.DONE),
+                new TaskBatchStatusDTO(foreignId, Status.DONE),
+                new TaskBatchStatusDTO(ownedId, null)
+        ));
+
+        assertEquals(Status.DONE, task.getStatus());
+        assertEquals(200, result.getItems().get(0).getHttpStatus());
+        assertEquals(404, result.getItems().get(1).getHttpStatus());
+        assertEquals(400, result.getItems().get(2).getHttpStatus());
+        verify(taskRepository).flush();
+        verify(taskStatusCountDao).add(userId, Map.of(Status.TODO, -1L, Status.DONE, 1L));
+    }
+
+    @Test
+    void shouldDeleteOwnedTasksWithSingleStatement() {
+        UUID ownedId = UUID.randomUUID();
+        UUID foreignId = UUID.randomUUID();
+
+        when(taskRepository.findOwnedForUpdateIn(anyCollection(), eq(userId))).thenReturn(List.of(ownedTask(ownedId)));
+
+        TaskBatchResult result = taskBatchService.deleteTasks(List.of(ownedId, foreignId, ownedId));
+
+        assertEquals(204, result.getItems().get(0).getHttpStatus());
+        assertEquals(404, result.getItems().get(1).getHttpStatus());
+        // drugi raz to samo id - juz usuniete w tej paczce
+        assertEquals(404, result.getItems().get(2).getHttpStatus());
+        verify(taskRepository).deleteOwnedIn(Set.of(ownedId), userId);
+        verify(taskSearchIndex, times(1)).remove(userId, ownedId);
+        verify(taskStatusCountDao).add(userId, Map.of(Status.TODO, -1L));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.Service;
+
+import com.example.demo.domain.dto.Task.CsvImportResult;
+import com.example.demo.domain.entity.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.security.model.CustomUserDetails;
+import com.example.demo.service.TaskCsvImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// import na prawdziwej bazie, z EntityManagerem przypietym do watku tak jak robi to open-in-view dla zapytania
+@SpringBootTest
+class TaskCsvImportPersistenceTest {
+
+    @Autowired
+    TaskCsvImportService importService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    EntityManager requestEntityManager;
+
+    User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("import_" + UUID.randomUUID());
+        user.setPassword("pass");
+        user = userRepository.save(user);
+
+        CustomUserDetails principal = new CustomUserDetails(user.getId(), user.getUsername(), "pass");
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        requestEntityManager.close();
+        SecurityContextHolder.clearContext();
+
+        jdbcTemplate.update("DELETE FROM task WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM task_status_count WHERE user_id = ?", user.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+    }
+
+    @Test
+    void shouldNotKeepImportedTasksInRequestPersistenceContext() {
+        StringBuilder csv = new StringBuilder("\"Title\",\"Description\",\"Status\",\"Due Date\"\n");
+        for (int i = 0; i < 1200; i++) {
+            csv.append("\"Task ").append(i).append("\",\"Desc\",\"TODO\",\"2030-01-01T10:00\"\n");
+        }
+
+        CsvImportResult result = importService.importTasks(new MockMultipartFile("file", "tasks.csv", "text/csv",
+                csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1200, result.getImported());
+        assertEquals(1200, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task WHERE user_id = ?", Long.class, user.getId()));
+        // trzy paczki przeszly przez ten sam kontekst, a nie zostala w nim zadna encja
+        assertEquals(0, requestEntityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.demo.Service;
+
+import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.domain.dto.Task.CsvImportResult;
+import com.example.demo.domain.entity.Category;
+import com.example.demo.domain.entity.Task;
+import com.example.demo.domain.entity.User;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.exceptions.InvalidCsvException;
+import com.example.demo.repository.CategoryRepository;
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
+import com.example.demo.service.TaskCsvImportService;
+import com.example.demo.service.UserService;
+import com.example.demo.service.reminder.DeadlineReminderScheduler;
+import com.example.demo.service.search.TaskSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskCsvImportServiceTest {
+
+    @Mock
+    TaskRepository taskRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    CategoryRepository categoryRepository;
+
+    @Mock
+    UserService userService;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Mock
+    TaskStatusCountDao taskStatusCountDao;
+
+    @Mock
+    ResourceVersionService resourceVersionService;
+
+    @Mock
+    DeadlineReminderScheduler deadlineReminderScheduler;
+
+    @Mock
+    EntityManager entityManager;
+
+    TaskCsvImportService importService;
+
+    UUID userId = UUID.randomUUID();
+
+    UUID categoryId = UUID.randomUUID();
+
+    private static final String HEADER = "\"ID\",\"Title\",\"Description\",\"Status\",\"Due Date\",\"Category\",\"Created At\",\"Updated At\"\n";
+
+    @BeforeEach
+    void setUp() {
+        importService = new TaskCsvImportService(taskRepository, userRepository, categoryRepository, userService,
+                categoryService, taskSearchIndex, Validation.buildDefaultValidatorFactory().getValidator(), transactionTemplate, taskStatusCountDao, resourceVersionService, deadlineReminderScheduler, entityManager);
+
+        CategoryDTO work = new CategoryDTO();
+        work.setId(categoryId);
+        work.setName("Work");
+
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(categoryService.getCategories()).thenReturn(List.of(work));
+        // transakcja w tescie po prostu wykonuje callback
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(userRepository.getReferenceById(userId)).thenReturn(new User());
+    }
+
+    private MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "tasks.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldImportValidRowsAndReportInvalidOnesWithLineNumbers() {
+        when(categoryRepository.getReferenceById(categoryId)).thenReturn(new Category());
+
+        CsvImportResult result = importService.importTasks(csv(HEADER
+                + "\"1\",\"Report\",\"Write report\",\"TODO\",\"2030-01-01T10:00\",\"work\",\"\",\"\"\n"
+                + "\"2\",\"\",\"No title\",\"TODO\",\"2030-01-01T10:00\",\"\",\"\",\"\"\n"
+                + "\"3\",\"Bad status\",\"Desc\",\"LATER\",\"2030-01-01T10:00\",\"\",\"\",\"\"\n"
+                + "\"4\",\"Bad category\",\"Desc\",\"DONE\",\"2030-01-01T10:00\",\"Nope\",\"\",\"\"\n"
+                + "\n"
+                + "\"5\",\"Multi\",\"line\ndescription\",\"IN_PROGRESS\",\"2030-01-01T10:00:00\",\"\",\"\",\"\"\n"
+                + "\"6\",\"Bad date\",\"Desc\",\"DONE\",\"tomorrow\",\"\",\"\",\"\"\n"));
+
+        assertEquals(2, result.getImported());
+        assertEquals(4, result.getFailed());
+        assertFalse(result.isErrorsTruncated());
+        assertEquals(List.of(3L, 4L, 5L, 9L), result.getErrors().stream().map(e -> e.getLine()).toList());
+        assertEquals("Title must not be blank", result.getErrors().get(0).getMessage());
+        assertEquals("Unknown status: LATER", result.getErrors().get(1).getMessage());
+        assertEquals("Unknown category: Nope", result.getErrors().get(2).getMessage());
+
+        ArgumentCaptor<List<Task>> saved = ArgumentCaptor.forClass(List.class);
+        verify(taskRepository).saveAll(saved.capture());
+        assertEquals(Status.IN_PROGRESS, saved.getValue().get(1).getStatus());
+        assertEquals("line\ndescription", saved.getValue().get(1).getDescription());
+        verify(taskSearchIndex, times(2)).index(eq(userId), any(), any(), any());
+        verify(taskStatusCountDao).add(userId, Map.of(Status.TODO, 1L, Status.IN_PROGRESS, 1L));
+    }
+
+    @Test
+    void shouldInsertInFixedSizeChunks() {
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 0; i < 1200; i++) {
+            content.append("\"\",\"Task ").append(i).append("\",\"Desc\",\"TODO\",\"2030-01-01T10:00\",\"\",\"\",\"\"\n");
+        }
+
+        CsvImportResult result = importService.importTasks(csv(content.toString()));
+
+        assertEquals(1200, result.getImported());
+        // 500 + 500 + 200, kazda paczka we wlasnej transakcji
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(taskRepository, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    void shouldCapReportedErrors() {
+        StringBuilder content = new StringBuilder(HEADER);
+        for (int i = 0; i < 150; i++) {
+            content.append("\"\",\"\",\"Desc\",\"TODO\",\"2030-01-01T10:00\",\"\",\"\",\"\"\n");
+        }
+
+        CsvImportResult result = importService.importTasks(csv(content.toString()));
+
+        assertEquals(150, result.getFailed());
+        assertEquals(100, result.getErrors().size());
+        assertTrue(result.isErrorsTruncated());
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void shouldRejectFileWithoutRequiredColumns() {
+        assertThrows(InvalidCsvException.class, () -> importService.importTasks(csv("\"Title\",\"Description\"\n\"a\",\"b\"\n")));
+    }
+
+    @Test
+    void shouldRejectEmptyFile() {
+        assertThrows(InvalidCsvException.class, () -> importService.importTasks(csv("")));
+    }
+}
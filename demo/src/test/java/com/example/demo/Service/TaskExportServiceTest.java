@@ -0,0 +1,178 @@
+package com.example.demo.Service;
+
+import com.example.demo.domain.dto.Task.TaskExportJobDTO;
+import com.example.demo.domain.enums.ExportStatus;
+import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.exceptions.ExportNotReadyException;
+import com.example.demo.domain.exceptions.ExportQueueFullException;
+import com.example.demo.domain.exceptions.NotFoundException;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.service.TaskExportService;
+import com.example.demo.service.TaskService;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    TaskService taskService;
+
+    @Mock
+    TaskStatusCountDao taskStatusCountDao;
+
+    @Mock
+    UserService userService;
+
+    @TempDir
+    Path spoolDir;
+
+    TaskExportService exportService;
+
+    UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(userService.getLoggedUserId()).thenReturn(userId);
+        lenient().when(taskStatusCountDao.findByUser(userId)).thenReturn(Map.of(Status.TODO, 2L, Status.DONE, 2L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (exportService != null) {
+            exportService.shutdown();
+        }
+    }
+
+    private TaskExportService createService(int queueCapacity, Duration ttl) {
+        exportService = new TaskExportService(taskService, taskStatusCountDao, userService, spoolDir.toString(), 1, queueCapacity, ttl);
+        return exportService;
+    }
+
+    private TaskExportJobDTO awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        TaskExportJobDTO job = exportService.getJob(id);
+        while (job.getStatus() != ExportStatus.DONE && job.getStatus() != ExportStatus.FAILED) {
+            assertTrue(System.nanoTime() < deadline, "export did not finish");
+            Thread.sleep(10);
+            job = exportService.getJob(id);
+        }
+        return job;
+    }
+
+    @Test
+    void shouldWriteExportToSpoolFile() throws Exception {
+        when(taskService.writeTasksCsv(eq(userId), any(OutputStream.class), any(LongConsumer.class))).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("ID\n1\n2\n3\n4\n".getBytes(StandardCharsets.UTF_8));
+            invocation.<LongConsumer>getArgument(2).accept(4);
+            return 4L;
+        });
+        createService(5, Duration.ofHours(1));
+
+        TaskExportJobDTO started = exportService.startExport();
+        TaskExportJobDTO finished = awaitFinished(started.getId());
+
+        assertEquals(ExportStatus.DONE, finished.getStatus());
+        assertEquals(4, finished.getRowsWritten());
+        assertEquals(4, finished.getTotalRows());
+        assertEquals(100, finished.getProgress());
+        assertNotNull(finished.getExpiresAt());
+        assertEquals("ID\n1\n2\n3\n4\n", Files.readString(exportService.getExportFile(started.getId())));
+    }
+
+    @Test
+    void shouldMarkJobFailedAndRemovePartialFile() throws Exception {
+        when(taskService.writeTasksCsv(eq(userId), any(OutputStream.class), any(LongConsumer.class)))
+                .thenThrow(new IllegalStateException("db down"));
+        createService(5, Duration.ofHours(1));
+
+        TaskExportJobDTO job = awaitFinished(exportService.startExport().getId());
+
+        assertEquals(ExportStatus.FAILED, job.getStatus());
+        assertThrows(ExportNotReadyException.class, () -> exportService.getExportFile(job.getId()));
+        try (var files = Files.list(spoolDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void shouldReturnRunningJobAndRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskService.writeTasksCsv(any(), any(OutputStream.class), any(LongConsumer.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 0L;
+        });
+        createService(1, Duration.ofHours(1));
+
+        TaskExportJobDTO first = exportService.startExport();
+        while (exportService.getJob(first.getId()).getStatus() != ExportStatus.RUNNING) {
+            Thread.sleep(10);
+        }
+        assertEquals(first.getId(), exportService.startExport().getId());
+
+        // jeden watek zajety, jedno miejsce w kolejce - trzeci uzytkownik dostaje odmowe
+        when(userService.getLoggedUserId()).thenReturn(UUID.randomUUID());
+        exportService.startExport();
+        when(userService.getLoggedUserId()).thenReturn(UUID.randomUUID());
+        assertThrows(ExportQueueFullException.class, () -> exportService.startExport());
+
+        release.countDown();
+    }
+
+    @Test
+    void shouldHideJobsOfOtherUsers() throws Exception {
+        when(taskService.writeTasksCsv(any(), any(OutputStream.class), any(LongConsumer.class))).thenReturn(0L);
+        createService(5, Duration.ofHours(1));
+        UUID id = awaitFinished(exportService.startExport().getId()).getId();
+
+        when(userService.getLoggedUserId()).thenReturn(UUID.randomUUID());
+
+        assertThrows(NotFoundException.class, () -> exportService.getJob(id));
+        assertThrows(NotFoundException.class, () -> exportService.getExportFile(id));
+    }
+
+    @Test
+    void shouldRemoveExpiredJobsWithTheirFiles() throws Exception {
+        when(taskService.writeTasksCsv(any(), any(OutputStream.class), any(LongConsumer.class))).thenReturn(0L);
+        createService(5, Duration.ZERO);
+        UUID id = awaitFinished(exportService.startExport().getId()).getId();
+        Path file = exportService.getExportFile(id);
+
+        assertEquals(1, exportService.removeExpired());
+
+        assertFalse(Files.exists(file));
+        assertThrows(NotFoundException.class, () -> exportService.getJob(id));
+    }
+
+    @Test
+    void shouldDeleteLeftoversFromPreviousRun() throws Exception {
+        Path leftover = Files.writeString(spoolDir.resolve(UUID.randomUUID() + ".csv"), "old");
+
+        createService(5, Duration.ofHours(1));
+
+        assertFalse(Files.exists(leftover));
+    }
+}
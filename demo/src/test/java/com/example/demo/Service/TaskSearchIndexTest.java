@@ -0,0 +1,131 @@
+package com.example.demo.Service;
+
+import com.example.demo.repository.TaskRepository;
+import com.example.demo.service.search.TaskSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TaskSearchIndexTest {
+
+    TaskSearchIndex index;
+
+    UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex(mock(TaskRepository.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldFindTaskByWordPrefixIgnoringCase() {
+        UUID id = UUID.randomUUID();
+        index.index(userId, id, "Weekly Report", "Prepare a report for the last week");
+
+        assertEquals(List.of(id), index.search(userId, "REP", 10));
+        assertEquals(List.of(id), index.search(userId, "week report", 10));
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveDescriptionMatches() {
+        UUID inDescription = UUID.randomUUID();
+        UUID inTitle = UUID.randomUUID();
+        index.index(userId, inDescription, "Clean up", "Write the report");
+        index.index(userId, inTitle, "Report", "For the boss");
+
+        assertEquals(List.of(inTitle, inDescription), index.search(userId, "report", 10));
+    }
+
+    @Test
+    void shouldRequireEveryQueryWord() {
+        UUID id = UUID.randomUUID();
+        index.index(userId, id, "Fix the faucet", "Leaking kitchen faucet");
+
+        assertTrue(index.search(userId, "faucet bathroom", 10).isEmpty());
+    }
+
+    @Test
+    void shouldScoreCommonWordOnTasksMatchingTheRareOne() {
+        UUID exact = UUID.randomUUID();
+        UUID prefix = UUID.randomUUID();
+        index.index(userId, exact, "Report", "Quarterly budget");
+        index.index(userId, prefix, "Reports", "Quarterly budget");
+        index.index(userId, UUID.randomUUID(), "Report", "Monthly summary");
+        index.index(userId, UUID.randomUUID(), "Report", "Weekly summary");
+
+        assertEquals(List.of(exact, prefix), index.search(userId, "report budget", 10));
+    }
+
+    @Test
+    void shouldNotReturnOtherUsersTasks() {
+        index.index(UUID.randomUUID(), UUID.randomUUID(), "Secret", "");
+
+        assertTrue(index.search(userId, "secret", 10).isEmpty());
+    }
+
+    @Test
+    void shouldReplaceTokensOnUpdateAndForgetOnRemove() {
+        UUID id = UUID.randomUUID();
+        index.index(userId, id, "Old title", "");
+        index.index(userId, id, "New title", "");
+
+        assertTrue(index.search(userId, "old", 10).isEmpty());
+        assertEquals(List.of(id), index.search(userId, "new", 10));
+
+        index.remove(userId, id);
+
+        assertTrue(index.search(userId, "title", 10).isEmpty());
+    }
+
+    @Test
+    void shouldLimitResults() {
+        for (int i = 0; i < 5; i++) {
+            index.index(userId, UUID.randomUUID(), "Task " + i, "");
+        }
+
+        assertEquals(2, index.search(userId, "task", 2).size());
+    }
+
+    @Test
+    void shouldChangeIndexOnlyAfterCommit() {
+        UUID kept = UUID.randomUUID();
+        index.index(userId, kept, "Report", "");
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.index(userId, UUID.randomUUID(), "Report draft", "");
+        index.remove(userId, kept);
+
+        // przed commitem indeks jest taki jak w bazie
+        assertEquals(List.of(kept), index.search(userId, "report", 10));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(1, index.search(userId, "report", 10).size());
+        assertFalse(index.search(userId, "report", 10).contains(kept));
+    }
+
+    @Test
+    void shouldIgnoreRolledBackChanges() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.index(userId, UUID.randomUUID(), "Phantom", "");
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertTrue(index.search(userId, "phantom", 10).isEmpty());
+    }
+}
@@ -1,34 +1,55 @@
 package com.example.demo.Service;
 
+import com.example.demo.domain.dto.Category.CategoryDTO;
+import com.example.demo.domain.dto.Task.TaskCsvRow;
+import com.example.demo.domain.dto.Task.TaskCursor;
+import com.example.demo.domain.dto.Task.TaskCursorPage;
 import com.example.demo.domain.dto.Task.TaskReceiveDTO;
 import com.example.demo.domain.dto.Task.TaskResponseDTO;
+import com.example.demo.domain.dto.Task.TaskStatusChange;
 import com.example.demo.domain.dto.Task.TasksDashboard;
 import com.example.demo.domain.entity.Category;
 import com.example.demo.domain.entity.Task;
 import com.example.demo.domain.entity.User;
 import com.example.demo.domain.enums.DeadlineFilter;
 import com.example.demo.domain.enums.Status;
+import com.example.demo.domain.enums.TaskSort;
+import com.example.demo.domain.exceptions.InvalidCursorException;
 import com.example.demo.domain.exceptions.NotFoundException;
 import com.example.demo.domain.mapper.TaskMapper;
 import com.example.demo.repository.CategoryRepository;
 import com.example.demo.repository.TaskRepository;
 import com.example.demo.repository.UserRepository;
-import com.example.demo.repository.dao.DashboardJdbcDao;
+import com.example.demo.repository.dao.TaskPageDao;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.repository.dao.TaskWriteDao;
+import com.example.demo.service.CategoryService;
+import com.example.demo.service.ResourceVersionService;
 import com.example.demo.service.TaskService;
 import com.example.demo.service.UserService;
+import com.example.demo.service.reminder.DeadlineReminderScheduler;
+import com.example.demo.service.search.TaskSearchIndex;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -52,7 +73,25 @@ class TaskServiceTest {
     UserService userService;
 
     @Mock
-    DashboardJdbcDao dashboardJdbcDao;
+    TaskStatusCountDao taskStatusCountDao;
+
+    @Mock
+    ResourceVersionService resourceVersionService;
+
+    @Mock
+    DeadlineReminderScheduler deadlineReminderScheduler;
+
+    @Mock
+    TaskPageDao taskPageDao;
+
+    @Mock
+    TaskSearchIndex taskSearchIndex;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    TaskWriteDao taskWriteDao;
 
     @InjectMocks
     TaskService taskService;
@@ -95,17 +134,24 @@ class TaskServiceTest {
 
         User user = new User();
         Category category = new Category();
+        CategoryDTO categoryDTO = new CategoryDTO();
         TaskResponseDTO responseDTO = new TaskResponseDTO();
 
         when(userService.getLoggedUserId()).thenReturn(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
-        when(taskMapper.mapToResponseDTO(any(Task.class))).thenReturn(responseDTO);
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+        when(categoryService.getAssignableCategory(categoryId)).thenReturn(categoryDTO);
+        when(categoryRepository.getReferenceById(categoryId)).thenReturn(category);
+        when(taskMapper.mapToResponseDTOWithoutCategory(any(Task.class))).thenReturn(responseDTO);
 
         TaskResponseDTO result = taskService.addTask(dto);
 
         assertNotNull(result);
-        verify(taskRepository).save(any(Task.class));
+        assertSame(categoryDTO, result.getCategory());
+        verify(taskRepository).save(argThat(task -> task.getUser() == user && task.getCategory() == category));
+        verify(taskStatusCountDao).increment(userId, Status.TODO, 1);
+        verify(deadlineReminderScheduler).schedule(any(), eq(userId), eq("Task"), eq(dto.getDueDate()), eq(Status.TODO));
+        verify(userRepository, never()).findById(any());
+        verify(categoryRepository, never()).findById(any());
     }
 
     @Test
@@ -115,38 +161,64 @@ class TaskServiceTest {
         dto.setCategoryId(UUID.randomUUID());
 
         when(userService.getLoggedUserId()).thenReturn(userId);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(categoryRepository.findById(any())).thenReturn(Optional.empty());
+        when(categoryService.getAssignableCategory(any())).thenThrow(new NotFoundException("Chosen category not found"));
 
         assertThrows(NotFoundException.class, () -> taskService.addTask(dto));
+        verify(taskRepository, never()).save(any());
+        verifyNoInteractions(taskStatusCountDao);
     }
 
     @Test
     void shouldDeleteTask() {
         UUID id = UUID.randomUUID();
-        Task task = new Task();
+        UUID userId = UUID.randomUUID();
 
-        when(taskRepository.findById(id)).thenReturn(Optional.of(task));
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskWriteDao.deleteOwned(id, userId)).thenReturn(1);
 
         taskService.deleteTask(id);
 
-        verify(taskRepository).delete(task);
+        // licznik zmienia to samo polecenie co usuwa zadanie
+        verifyNoInteractions(taskStatusCountDao);
+        verify(taskSearchIndex).remove(userId, id);
+        verify(deadlineReminderScheduler).cancel(id);
     }
 
     @Test
     void shouldUpdateTaskStatus() {
         UUID id = UUID.randomUUID();
-        Task task = new Task();
+        UUID userId = UUID.randomUUID();
+        UUID categoryId = UUID.randomUUID();
         TaskResponseDTO dto = new TaskResponseDTO();
+        dto.setId(id);
+        dto.setTitle("Report");
+        dto.setStatus(Status.DONE);
+        CategoryDTO categoryDTO = new CategoryDTO();
 
-        when(taskRepository.findById(id)).thenReturn(Optional.of(task));
-        when(taskMapper.mapToResponseDTO(task)).thenReturn(dto);
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskWriteDao.updateStatusOwned(eq(id), eq(userId), eq(Status.DONE), any()))
+                .thenReturn(Optional.of(new TaskStatusChange(Status.TODO, categoryId, dto)));
+        when(categoryService.getCategoryById(categoryId)).thenReturn(categoryDTO);
 
         TaskResponseDTO result = taskService.updateStatus(Status.DONE, id);
 
-        assertNotNull(result);
-        assertEquals(Status.DONE, task.getStatus());
-        verify(taskRepository).save(task);
+        assertSame(dto, result);
+        assertSame(categoryDTO, result.getCategory());
+        verify(taskStatusCountDao).move(userId, Status.TODO, Status.DONE);
+        verify(deadlineReminderScheduler).schedule(eq(id), eq(userId), eq("Report"), any(), eq(Status.DONE));
+        verifyNoInteractions(taskRepository, taskMapper);
+    }
+
+    @Test
+    void shouldThrowWhenUpdatingStatusOfForeignTask() {
+        UUID id = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskWriteDao.updateStatusOwned(eq(id), eq(userId), eq(Status.DONE), any())).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> taskService.updateStatus(Status.DONE, id));
+        verifyNoInteractions(taskStatusCountDao);
     }
 
     @Test
@@ -170,12 +242,34 @@ class TaskServiceTest {
         assertTrue(result.length > 0);
     }
 
+    @Test
+    void shouldStreamTasksToCsv() {
+        UUID userId = UUID.randomUUID();
+        TaskCsvRow row = new TaskCsvRow(
+                UUID.randomUUID(), "Test", "Desc", Status.TODO,
+                LocalDateTime.now(), null, LocalDateTime.now(), LocalDateTime.now()
+        );
+
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskRepository.streamCsvRowsByUserId(userId)).thenReturn(Stream.of(row));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskService.exportTasksToCsv(out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.startsWith("\"ID\",\"Title\""));
+        assertTrue(csv.contains("\"Test\",\"Desc\",\"TODO\""));
+        verify(taskRepository, never()).findByUserId(any());
+    }
+
     @Test
     void shouldReturnEmptyDashboardWhenNoTasks() {
         UUID userId = UUID.randomUUID();
 
         when(userService.getLoggedUserId()).thenReturn(userId);
-        when(dashboardJdbcDao.countAll(userId)).thenReturn(0L);
+        when(taskStatusCountDao.findByUser(userId)).thenReturn(new EnumMap<>(Map.of(
+                Status.TODO, 0L, Status.IN_PROGRESS, 0L, Status.DONE, 0L
+        )));
 
         TasksDashboard dashboard = taskService.getTasksDashboard();
 
@@ -187,47 +281,114 @@ class TaskServiceTest {
         UUID userId = UUID.randomUUID();
 
         when(userService.getLoggedUserId()).thenReturn(userId);
-        when(dashboardJdbcDao.countAll(userId)).thenReturn(10L);
-        when(dashboardJdbcDao.countByStatus(userId, Status.TODO)).thenReturn(2L);
-        when(dashboardJdbcDao.countByStatus(userId, Status.IN_PROGRESS)).thenReturn(3L);
-        when(dashboardJdbcDao.countByStatus(userId, Status.DONE)).thenReturn(5L);
+        when(taskStatusCountDao.findByUser(userId)).thenReturn(new EnumMap<>(Map.of(
+                Status.TODO, 2L, Status.IN_PROGRESS, 3L, Status.DONE, 5L
+        )));
 
         TasksDashboard dashboard = taskService.getTasksDashboard();
 
         assertEquals(10, dashboard.getTogether());
+        assertEquals(2, dashboard.getTODO());
+        assertEquals(3, dashboard.getIN_PROGRESS());
         assertEquals(5, dashboard.getDONE());
         assertEquals(50f, dashboard.getCompletedProcent());
     }
 
     @Test
-    void shouldGetTasksWithFilters() {
+    void shouldGetTasksInOrderOfPageIds() {
         UUID userId = UUID.randomUUID();
-        Task task = new Task();
-        Page<Task> page = new PageImpl<>(List.of(task));
-        TaskResponseDTO dto = new TaskResponseDTO();
+        TaskResponseDTO first = new TaskResponseDTO();
+        first.setId(UUID.randomUUID());
+        TaskResponseDTO second = new TaskResponseDTO();
+        second.setId(UUID.randomUUID());
 
         when(userService.getLoggedUserId()).thenReturn(userId);
-        when(taskRepository.findFiltered(
-                eq(userId),
-                eq("test"),
-                eq(Status.TODO),
-                any(),
-                any(),
-                any(),
-                any()
-        )).thenReturn(page);
-
-        when(taskMapper.mapToResponseDTO(task)).thenReturn(dto);
+        when(taskPageDao.findPageIds(eq(userId), eq("test"), eq(Status.TODO), isNull(), isNull(), isNull(),
+                eq(TaskSort.TITLE), eq(Sort.Direction.ASC), eq(0L), eq(10)))
+                .thenReturn(List.of(second.getId(), first.getId()));
+        when(taskRepository.findResponsesByIdIn(List.of(second.getId(), first.getId()))).thenReturn(List.of(first, second));
 
         Page<TaskResponseDTO> result = taskService.getTasks(
                 "test",
                 Status.TODO,
                 null,
                 null,
-                Pageable.unpaged()
+                TaskSort.TITLE,
+                Sort.Direction.ASC,
+                PageRequest.of(0, 10)
         );
 
-        assertEquals(1, result.getContent().size());
+        assertEquals(List.of(second, first), result.getContent());
+        // niepelna pierwsza strona - liczba wynikow znana bez COUNT
+        assertEquals(2, result.getTotalElements());
+        verify(taskPageDao, never()).count(any(), any(), any(), any(), any(), any());
+        verifyNoInteractions(taskMapper);
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenMoreTasksExist() {
+        UUID userId = UUID.randomUUID();
+        TaskResponseDTO first = new TaskResponseDTO();
+        first.setId(UUID.randomUUID());
+        first.setCreatedAt(LocalDateTime.now().minusMinutes(2));
+        TaskResponseDTO second = new TaskResponseDTO();
+        second.setId(UUID.randomUUID());
+        second.setCreatedAt(LocalDateTime.now().minusMinutes(1));
+
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskRepository.findFilteredAfter(
+                eq(userId), isNull(), isNull(), isNull(), isNull(), isNull(),
+                eq(TaskCursor.START.getCreatedAt()), eq(TaskCursor.START.getId()), eq(Limit.of(2))
+        )).thenReturn(List.of(first, second));
+
+        TaskCursorPage result = taskService.getTasksAfter(null, null, null, null, "", 1);
+
+        assertEquals(List.of(first), result.getContent());
+        verifyNoInteractions(taskMapper);
+        TaskCursor next = TaskCursor.decode(result.getNextCursor());
+        assertEquals(first.getId(), next.getId());
+        assertEquals(first.getCreatedAt(), next.getCreatedAt());
+    }
+
+    @Test
+    void shouldNotReturnNextCursorOnLastSlice() {
+        UUID userId = UUID.randomUUID();
+        TaskCursor cursor = new TaskCursor(LocalDateTime.now(), UUID.randomUUID());
+
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskRepository.findFilteredAfter(
+                eq(userId), any(), any(), any(), any(), any(),
+                eq(cursor.getCreatedAt()), eq(cursor.getId()), any()
+        )).thenReturn(List.of());
+
+        TaskCursorPage result = taskService.getTasksAfter(null, null, null, null, cursor.encode(), 10);
+
+        assertTrue(result.getContent().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(InvalidCursorException.class,
+                () -> taskService.getTasksAfter(null, null, null, null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void shouldReturnSearchResultsInRankOrder() {
+        UUID userId = UUID.randomUUID();
+        TaskResponseDTO bestDto = new TaskResponseDTO();
+        bestDto.setId(UUID.randomUUID());
+        TaskResponseDTO otherDto = new TaskResponseDTO();
+        otherDto.setId(UUID.randomUUID());
+
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskSearchIndex.search(userId, "report", 20)).thenReturn(List.of(bestDto.getId(), otherDto.getId()));
+        when(taskRepository.findResponsesByIdIn(List.of(bestDto.getId(), otherDto.getId()))).thenReturn(List.of(otherDto, bestDto));
+
+        List<TaskResponseDTO> result = taskService.searchTasks("report", 20);
+
+        assertEquals(List.of(bestDto, otherDto), result);
+        verifyNoInteractions(taskMapper);
     }
 
     @Test
@@ -235,7 +396,11 @@ class TaskServiceTest {
         UUID taskId = UUID.randomUUID();
         UUID categoryId = UUID.randomUUID();
 
+        User owner = new User();
+        owner.setId(UUID.randomUUID());
         Task task = new Task();
+        task.setUser(owner);
+        task.setStatus(Status.TODO);
         Category category = new Category();
         TaskReceiveDTO dto = new TaskReceiveDTO();
         dto.setTitle("Updated");
@@ -243,14 +408,17 @@ class TaskServiceTest {
         dto.setStatus(Status.IN_PROGRESS);
         dto.setDueDate(LocalDateTime.now());
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
-        when(taskMapper.mapToResponseDTO(task)).thenReturn(new TaskResponseDTO());
+        when(userService.getLoggedUserId()).thenReturn(owner.getId());
+        when(taskRepository.findOwnedForUpdate(taskId, owner.getId())).thenReturn(Optional.of(task));
+        when(categoryService.getAssignableCategory(categoryId)).thenReturn(new CategoryDTO());
+        when(categoryRepository.getReferenceById(categoryId)).thenReturn(category);
+        when(taskMapper.mapToResponseDTOWithoutCategory(task)).thenReturn(new TaskResponseDTO());
 
         TaskResponseDTO result = taskService.updateTask(dto, taskId);
 
         assertNotNull(result);
         assertEquals(category, task.getCategory());
+        verify(taskStatusCountDao).move(owner.getId(), Status.TODO, Status.IN_PROGRESS);
     }
 
     @Test
@@ -258,6 +426,7 @@ class TaskServiceTest {
         UUID taskId = UUID.randomUUID();
 
         Task task = new Task();
+        task.setUser(new User());
         task.setCategory(new Category());
 
         TaskReceiveDTO dto = new TaskReceiveDTO();
@@ -265,8 +434,10 @@ class TaskServiceTest {
         dto.setStatus(Status.TODO);
         dto.setDueDate(LocalDateTime.now());
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskMapper.mapToResponseDTO(task)).thenReturn(new TaskResponseDTO());
+        UUID userId = UUID.randomUUID();
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskRepository.findOwnedForUpdate(taskId, userId)).thenReturn(Optional.of(task));
+        when(taskMapper.mapToResponseDTOWithoutCategory(task)).thenReturn(new TaskResponseDTO());
 
         taskService.updateTask(dto, taskId);
 
@@ -277,19 +448,39 @@ class TaskServiceTest {
     void shouldThrowWhenUpdatingNonExistingTask() {
         UUID id = UUID.randomUUID();
 
-        when(taskRepository.findById(id)).thenReturn(Optional.empty());
+        UUID userId = UUID.randomUUID();
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskRepository.findOwnedForUpdate(id, userId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
                 () -> taskService.updateTask(new TaskReceiveDTO(), id));
     }
 
+    @Test
+    void shouldThrowWhenUpdatingForeignTask() {
+        UUID id = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        TaskReceiveDTO dto = new TaskReceiveDTO();
+        dto.setTitle("Taken over");
+        dto.setStatus(Status.DONE);
+
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskRepository.findOwnedForUpdate(id, userId)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> taskService.updateTask(dto, id));
+        verifyNoInteractions(taskStatusCountDao, taskSearchIndex, deadlineReminderScheduler, resourceVersionService);
+    }
+
     @Test
     void shouldThrowWhenDeletingNonExistingTask() {
         UUID id = UUID.randomUUID();
-        when(taskRepository.findById(id)).thenReturn(Optional.empty());
+        UUID userId = UUID.randomUUID();
+        when(userService.getLoggedUserId()).thenReturn(userId);
+        when(taskWriteDao.deleteOwned(id, userId)).thenReturn(0);
 
         assertThrows(NotFoundException.class,
                 () -> taskService.deleteTask(id));
+        verifyNoInteractions(taskSearchIndex, deadlineReminderScheduler);
     }
 
     @Test
@@ -307,53 +498,39 @@ class TaskServiceTest {
     @Test
     void shouldGetTasksBeforeDeadline() {
         UUID userId = UUID.randomUUID();
-        Task task = new Task();
-        TaskResponseDTO dto = new TaskResponseDTO();
 
         when(userService.getLoggedUserId()).thenReturn(userId);
-        when(taskRepository.findFiltered(
-                eq(userId),
-                isNull(),
-                isNull(),
-                isNull(),
-                any(),
-                isNull(),
-                any()
-        )).thenReturn(new PageImpl<>(List.of(task)));
-
-        when(taskMapper.mapToResponseDTO(task)).thenReturn(dto);
+        when(taskPageDao.findPageIds(eq(userId), isNull(), isNull(), isNull(), any(LocalDateTime.class), isNull(),
+                eq(TaskSort.CREATED_AT), eq(Sort.Direction.DESC), eq(0L), eq(10)))
+                .thenReturn(List.of());
 
         Page<TaskResponseDTO> result = taskService.getTasks(
-                null, null, null, DeadlineFilter.BEFORE_DEADLINE, Pageable.unpaged()
+                null, null, null, DeadlineFilter.BEFORE_DEADLINE, TaskSort.CREATED_AT, Sort.Direction.DESC, PageRequest.of(0, 10)
         );
 
-        assertEquals(1, result.getTotalElements());
+        assertEquals(0, result.getTotalElements());
+        verify(taskRepository, never()).findResponsesByIdIn(any());
     }
 
     @Test
-    void shouldGetTasksAfterDeadline() {
+    void shouldCountTasksAfterDeadlineWhenPageIsFull() {
         UUID userId = UUID.randomUUID();
-        Task task = new Task();
         TaskResponseDTO dto = new TaskResponseDTO();
+        dto.setId(UUID.randomUUID());
 
         when(userService.getLoggedUserId()).thenReturn(userId);
-        when(taskRepository.findFiltered(
-                eq(userId),
-                isNull(),
-                isNull(),
-                isNull(),
-                isNull(),
-                any(),
-                any()
-        )).thenReturn(new PageImpl<>(List.of(task)));
-
-        when(taskMapper.mapToResponseDTO(task)).thenReturn(dto);
+        when(taskPageDao.findPageIds(eq(userId), isNull(), isNull(), isNull(), isNull(), any(LocalDateTime.class),
+                eq(TaskSort.DUE_DATE), eq(Sort.Direction.ASC), eq(0L), eq(1)))
+                .thenReturn(List.of(dto.getId()));
+        when(taskRepository.findResponsesByIdIn(List.of(dto.getId()))).thenReturn(List.of(dto));
+        when(taskPageDao.count(eq(userId), isNull(), isNull(), isNull(), isNull(), any(LocalDateTime.class))).thenReturn(5L);
 
         Page<TaskResponseDTO> result = taskService.getTasks(
-                null, null, null, DeadlineFilter.AFTER_DEADLINE, Pageable.unpaged()
+                null, null, null, DeadlineFilter.AFTER_DEADLINE, TaskSort.DUE_DATE, Sort.Direction.ASC, PageRequest.of(0, 1)
         );
 
-        assertEquals(1, result.getTotalElements());
+        assertEquals(List.of(dto), result.getContent());
+        assertEquals(5, result.getTotalElements());
     }
 
 }
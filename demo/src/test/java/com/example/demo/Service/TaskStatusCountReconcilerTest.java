@@ -0,0 +1,84 @@
+package com.example.demo.Service;
+
+import com.example.demo.domain.enums.Status;
+import com.example.demo.repository.dao.DashboardJdbcDao;
+import com.example.demo.repository.dao.TaskStatusCountDao;
+import com.example.demo.service.ResourceVersionService;
+import com.example.demo.service.TaskStatusCountReconciler;
+import com.example.demo.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatusCountReconcilerTest {
+
+    @Mock
+    TaskStatusCountDao taskStatusCountDao;
+
+    @Mock
+    DashboardJdbcDao dashboardJdbcDao;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Mock
+    UserService userService;
+
+    ResourceVersionService resourceVersionService;
+
+    TaskStatusCountReconciler reconciler;
+
+    UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        resourceVersionService = new ResourceVersionService(userService);
+        reconciler = new TaskStatusCountReconciler(taskStatusCountDao, dashboardJdbcDao, transactionTemplate, resourceVersionService);
+
+        // transakcja w tescie po prostu wykonuje callback
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(userService.getLoggedUserId()).thenReturn(userId);
+    }
+
+    @Test
+    void shouldChangeDashboardEtagAfterRepair() {
+        Map<Status, Long> actual = Map.of(Status.TODO, 2L, Status.IN_PROGRESS, 0L, Status.DONE, 1L);
+        when(taskStatusCountDao.findUsersWithDrift()).thenReturn(List.of(userId));
+        when(dashboardJdbcDao.countGroupedByStatus(userId)).thenReturn(actual);
+        String before = resourceVersionService.currentDashboardEtag();
+
+        assertEquals(1, reconciler.reconcile());
+
+        verify(taskStatusCountDao).lockByUser(userId);
+        verify(taskStatusCountDao).set(userId, actual);
+        assertNotEquals(before, resourceVersionService.currentDashboardEtag());
+    }
+
+    @Test
+    void shouldKeepEtagWhenNothingDrifted() {
+        when(taskStatusCountDao.findUsersWithDrift()).thenReturn(List.of());
+        String before = resourceVersionService.currentDashboardEtag();
+
+        assertEquals(0, reconciler.reconcile());
+
+        verifyNoInteractions(transactionTemplate, dashboardJdbcDao);
+        assertEquals(before, resourceVersionService.currentDashboardEtag());
+    }
+}